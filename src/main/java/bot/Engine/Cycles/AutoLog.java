@@ -4,7 +4,6 @@ import bot.Engine.Games.Drafts.DraftGame;
 import bot.Engine.Games.Drafts.DraftPlayer;
 import bot.Engine.Games.Drafts.DraftTeam;
 import bot.Engine.Section;
-import bot.Tools.GoogleSheetsAPI;
 
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.entities.Member;
@@ -12,8 +11,10 @@ import net.dv8tion.jda.api.entities.TextChannel;
 import net.dv8tion.jda.api.events.interaction.ButtonClickEvent;
 
 import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
 import java.io.IOException;
 import java.security.GeneralSecurityException;
 
@@ -142,48 +143,38 @@ public class AutoLog extends Section {
     }
 
     /**
-     * Updates the cycle spreadsheet based on the draft
-     * players' information.
-     * @param log a ManualLog object for actual reporting.
-     * @param draft the draft to report.
-     * @param bc a button click to analyze.
+     * Builds the cycle events of the draft players' information.
      * @param team the current team to report.
+     * @param members the draft's players, indexed by Discord ID.
      * @param playerTypes array of types for each player
      *                    (0 if an existing player, 1 if a new player).
      * @param errorsFound array of errors found for each player, if any
      *                    (0 if no errors occurred, 1 otherwise).
      * @param offset an index to offset the type arrays, based on the
      *               current team.
-     * @param link a connection to the spreadsheet.
-     * @param data a map of all rows of the spreadsheet.
+     * @param ledger the section's cycle stats.
+     * @param events a store for the players' events.
      */
-    private void updateSpreadsheet(ManualLog log, DraftGame draft,
-                                   ButtonClickEvent bc, DraftTeam team,
-                                   int[] playerTypes, int[] errorsFound, int offset,
-                                   GoogleSheetsAPI link, TreeMap<Object, Object> data) {
+    private void buildEvents(DraftTeam team, Map<String, Member> members,
+                             int[] playerTypes, int[] errorsFound, int offset,
+                             CycleLedger ledger, List<CycleEvent> events)
+            throws IOException, GeneralSecurityException {
         int i = 0;
         for (Map.Entry<String, DraftPlayer> player : team.getPlayers().entrySet()) {
             String currID = player.getKey();
             DraftPlayer currPlayer = player.getValue();
-            Member user = draft.findMember(bc, currID);
+            Member user = members.get(currID);
 
             int gameWins = currPlayer.getWins();
             int gamesPlayed = gameWins + currPlayer.getLosses();
 
-            String cmd = "log";
-            if (currPlayer.isSub()) {
-                cmd = "sub";
-            }
-
-            if (data.containsKey(currID)) {
-                PlayerStats stats = (PlayerStats) data.get(currID);
-                errorsFound[offset + i] = log.updateUser(
-                        cmd, gamesPlayed, gameWins, user, link, stats);
-                playerTypes[offset + i] = 0;
+            playerTypes[offset + i] = ledger.contains(currID) ? 0 : 1;
+            if (user == null) {
+                errorsFound[offset + i] = 1;
             } else {
-                errorsFound[offset + i] = log.addUser(
-                        cmd, gamesPlayed, gameWins, user, link);
-                playerTypes[offset + i] = 1;
+                events.add(CycleEvent.report(currPlayer.isSub(), user.getIdLong(),
+                        user.getUser().getAsTag(), user.getEffectiveName(),
+                        gamesPlayed, gameWins));
             }
 
             i++;
@@ -191,14 +182,16 @@ public class AutoLog extends Section {
     }
 
     /**
-     * Reports the draft.
+     * Records the draft's players once they are found and
+     * sends the report's summary.
      * @param bc a button click to analyze.
      * @param draft the draft to report.
+     * @param members the draft's players, indexed by Discord ID.
      */
-    public void matchReport(ButtonClickEvent bc, DraftGame draft) {
+    private void recordDraft(ButtonClickEvent bc, DraftGame draft,
+                             Map<String, Member> members) {
         try {
-            GoogleSheetsAPI link = new GoogleSheetsAPI(cyclesSheetID());
-            TreeMap<Object, Object> data = link.readSection(bc, CYCLES_TAB);
+            CycleLedger ledger = CycleLedger.getInstance(getPrefix());
 
             DraftTeam team1 = draft.getProcess().getTeam1();
             DraftTeam team2 = draft.getProcess().getTeam2();
@@ -207,12 +200,21 @@ public class AutoLog extends Section {
             int[] playerTypes = new int[totalSize];
             int[] errorsFound = new int[totalSize];
 
-            ManualLog log = new ManualLog(getPrefix());
-            updateSpreadsheet(log, draft, bc, team1, playerTypes,
-                    errorsFound, 0, link, data);
-            updateSpreadsheet(log, draft, bc, team2, playerTypes,
-                    errorsFound, team1.getPlayers().size(), link, data);
+            List<CycleEvent> events = new ArrayList<>(totalSize);
+            buildEvents(team1, members, playerTypes, errorsFound, 0,
+                    ledger, events);
+            buildEvents(team2, members, playerTypes, errorsFound,
+                    team1.getPlayers().size(), ledger, events);
+
+            try {
+                ledger.record("draft " + draft.getNumDraft(), events);
+            } catch (IOException e) {
+                Arrays.fill(errorsFound, 1);
+                draft.log("The " + getPrefix().toUpperCase() + " match report "
+                        + "could not be saved.", true);
+            }
 
+            ManualLog log = new ManualLog(getPrefix());
             sendReport(log, draft, bc, team1, team2, playerTypes, errorsFound);
             draft.log(totalSize + " " + getPrefix().toUpperCase()
                     + " draft player(s) were automatically processed.", false);
@@ -222,4 +224,29 @@ public class AutoLog extends Section {
                     + " cycles spreadsheet could not load.", true);
         }
     }
+
+    /**
+     * Reports the draft.
+     * @param bc a button click to analyze.
+     * @param draft the draft to report.
+     *
+     * Note: Players missing from the member cache are requested from
+     *       Discord together, and the draft is recorded on a report
+     *       thread, so neither blocks Discord's threads.
+     */
+    public void matchReport(ButtonClickEvent bc, DraftGame draft) {
+        List<String> ids = new ArrayList<>(
+                draft.getProcess().getTeam1().getPlayers().keySet());
+        ids.addAll(draft.getProcess().getTeam2().getPlayers().keySet());
+
+        draft.findMembersAsync(bc, ids)
+                .thenAcceptAsync(members -> recordDraft(bc, draft, members),
+                        ManualLog.reportExecutor)
+                .whenComplete((ignored, e) -> {
+                    if (e != null) {
+                        draft.log("The " + getPrefix().toUpperCase() + " match "
+                                + "report could not be processed.", true);
+                    }
+                });
+    }
 }
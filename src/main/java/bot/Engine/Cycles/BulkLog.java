@@ -0,0 +1,363 @@
+package bot.Engine.Cycles;
+
+import bot.Engine.Templates.Command;
+
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.events.interaction.SlashCommandEvent;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * @author  Wil Aquino
+ * Date:    August 23, 2022
+ * Project: Libra
+ * Module:  BulkLog.java
+ * Purpose: Logs many sets of MIT leaderboard information
+ *          via one command.
+ */
+public class BulkLog extends ManualLog implements Command {
+
+    /** The largest number of sets which can be reported at once. */
+    private static final int MAX_SETS = 100;
+
+    /** The largest number of players within one set. */
+    private static final int MAX_SET_PLAYERS = 4;
+
+    /** The largest number of games within one set. */
+    private static final int MAX_SET_GAMES = 19;
+
+    /** The largest length of the summary's player list, within Discord's embed limit. */
+    private static final int MAX_LIST_LENGTH = 4000;
+
+    /** Matches a mentioned player. */
+    private static final Pattern MENTION = Pattern.compile("<@!?(\\d+)>");
+
+    /**
+     * A parsed set.
+     */
+    static class ReportedSet {
+
+        /** Flag for checking whether the players subbed or not. */
+        private final boolean isSub;
+
+        /** The amount of games played. */
+        private final int gamesPlayed;
+
+        /** The amount of games won. */
+        private final int gamesWon;
+
+        /** The Discord IDs of the players. */
+        private final Set<Long> players;
+
+        /**
+         * Constructs a parsed set.
+         * @param sub True if the players subbed.
+         *            False otherwise.
+         * @param played the amount of games played.
+         * @param won the amount of games won.
+         * @param ids the Discord IDs of the players.
+         */
+        private ReportedSet(boolean sub, int played, int won, Set<Long> ids) {
+            isSub = sub;
+            gamesPlayed = played;
+            gamesWon = won;
+            players = ids;
+        }
+    }
+
+    /**
+     * Constructs the bulk cycle log attributes.
+     * @param abbreviation the abbreviation of the section.
+     */
+    public BulkLog(String abbreviation) {
+        super(abbreviation);
+    }
+
+    /**
+     * Parses the reported sets, one per line or separated by semicolons,
+     * each written as "[log|sub] (games played) (games won) @players...".
+     * @param input the reported sets.
+     * @return said sets.
+     * @throws IllegalArgumentException if any set is invalid, describing it.
+     */
+    static List<ReportedSet> parseSets(String input) {
+        List<ReportedSet> sets = new ArrayList<>();
+        for (String line : input.split("[;\\n]")) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+
+            int setNum = sets.size() + 1;
+            String[] words = MENTION.matcher(trimmed).replaceAll(" ")
+                    .trim().split("\\s+");
+
+            int start = 0;
+            boolean isSub = false;
+            if (words[0].equalsIgnoreCase("log") || words[0].equalsIgnoreCase("sub")) {
+                isSub = words[0].equalsIgnoreCase("sub");
+                start = 1;
+            }
+            if (words.length - start != 2) {
+                throw new IllegalArgumentException(String.format(
+                        "Set %s should be written as `[log|sub] (games played) "
+                                + "(games won) @players`.", setNum));
+            }
+
+            int gamesPlayed, gamesWon;
+            try {
+                gamesPlayed = Integer.parseInt(words[start]);
+                gamesWon = Integer.parseInt(words[start + 1]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(String.format(
+                        "Set %s has an invalid number of games.", setNum));
+            }
+
+            if (gamesPlayed < gamesWon) {
+                throw new IllegalArgumentException(String.format(
+                        "Set %s has more games won than played.", setNum));
+            } else if (gamesPlayed < 0 || gamesWon < 0) {
+                throw new IllegalArgumentException(String.format(
+                        "Set %s has a negative amount of games.", setNum));
+            } else if (gamesPlayed > MAX_SET_GAMES) {
+                throw new IllegalArgumentException(String.format(
+                        "Set %s has more games than a set can have.", setNum));
+            }
+
+            Set<Long> players = new LinkedHashSet<>();
+            Matcher mentions = MENTION.matcher(trimmed);
+            while (mentions.find()) {
+                if (!players.add(Long.parseLong(mentions.group(1)))) {
+                    throw new IllegalArgumentException(String.format(
+                            "Set %s mentions a player twice.", setNum));
+                }
+            }
+            if (players.isEmpty() || players.size() > MAX_SET_PLAYERS) {
+                throw new IllegalArgumentException(String.format(
+                        "Set %s should mention between 1 and %s players.",
+                        setNum, MAX_SET_PLAYERS));
+            }
+
+            sets.add(new ReportedSet(isSub, gamesPlayed, gamesWon, players));
+            if (sets.size() > MAX_SETS) {
+                throw new IllegalArgumentException(String.format(
+                        "At most %s sets can be reported at once.", MAX_SETS));
+            }
+        }
+
+        if (sets.isEmpty()) {
+            throw new IllegalArgumentException("No sets were given.");
+        }
+
+        return sets;
+    }
+
+    /**
+     * Folds the changes of every set into one change per player.
+     * @param sets the parsed sets.
+     * @return the change in won sets, lost sets, won games and lost games
+     *         of each player, by Discord ID, in order of first mention.
+     */
+    static Map<Long, int[]> foldSets(List<ReportedSet> sets) {
+        Map<Long, int[]> deltas = new LinkedHashMap<>();
+        for (ReportedSet set : sets) {
+            for (long id : set.players) {
+                CycleEvent event = CycleEvent.report(set.isSub, id, null, null,
+                        set.gamesPlayed, set.gamesWon);
+
+                int[] delta = deltas.computeIfAbsent(id, k -> new int[4]);
+                delta[0] += event.getSetWins();
+                delta[1] += event.getSetLosses();
+                delta[2] += event.getGameWins();
+                delta[3] += event.getGameLosses();
+            }
+        }
+
+        return deltas;
+    }
+
+    /**
+     * Adds a list to an embed, split across as many fields as
+     * Discord's field length allows.
+     * @param eb the embed to add to.
+     * @param name the name of the first field.
+     * @param lines the lines of the list.
+     */
+    private void addListFields(EmbedBuilder eb, String name, List<String> lines) {
+        StringBuilder field = new StringBuilder();
+        String fieldName = name;
+        for (String line : lines) {
+            if (field.length() + line.length() > MessageEmbed.VALUE_MAX_LENGTH) {
+                eb.addField(fieldName, field.toString(), false);
+                field.setLength(0);
+                fieldName = EmbedBuilder.ZERO_WIDTH_SPACE;
+            }
+            field.append(line);
+        }
+
+        eb.addField(fieldName, field.toString(), false);
+    }
+
+    /**
+     * Print the summary of the bulk match report.
+     * @param sc the user's inputted command.
+     * @param numSets the number of reported sets.
+     * @param deltas each player's folded changes, by Discord ID.
+     * @param newPlayers the Discord IDs of the players new to the cycle.
+     * @param failed the Discord IDs of the players which were not updated.
+     * @param entry the journaled report, if it was saved.
+     */
+    private void sendReport(SlashCommandEvent sc, int numSets,
+                            Map<Long, int[]> deltas, Set<Long> newPlayers,
+                            Set<Long> failed, CycleJournal.Entry entry) {
+        EmbedBuilder eb = new EmbedBuilder();
+        List<String> playerList = new ArrayList<>(deltas.size());
+
+        int listLength = 0;
+        for (Map.Entry<Long, int[]> player : deltas.entrySet()) {
+            long id = player.getKey();
+            int[] delta = player.getValue();
+
+            String completionSymbol = failed.contains(id)
+                    ? ":no_entry: " : ":white_check_mark: ";
+            String line = String.format("%s<@%s>%s: sets %s-%s, games %s-%s\n",
+                    completionSymbol, id,
+                    newPlayers.contains(id) ? " (new)" : "",
+                    delta[0], delta[1], delta[2], delta[3]);
+
+            listLength += line.length();
+            if (listLength > MAX_LIST_LENGTH) {
+                playerList.add(String.format("...and %s more player(s)\n",
+                        deltas.size() - playerList.size()));
+                break;
+            }
+            playerList.add(line);
+        }
+
+        eb.setTitle("Summary of Bulk Report")
+                .setColor(getColor())
+                .addField("Sets:", Integer.toString(numSets), false);
+        addListFields(eb, "Players Updated:", playerList);
+        if (failed.isEmpty()) {
+            eb.addField("Status:", "COMPLETE", false);
+        } else {
+            eb.setColor(Color.RED);
+            eb.addField("Status:", "INCOMPLETE", false);
+        }
+        if (entry != null) {
+            eb.setFooter("Entry #" + entry.getSequence());
+        }
+
+        sendEmbed(sc, eb);
+    }
+
+    /**
+     * Records the folded changes of the reported sets.
+     * @param sc the user's inputted command.
+     * @param numSets the number of reported sets.
+     * @param deltas each player's folded changes, by Discord ID.
+     * @param members the players which could be found, by Discord ID.
+     */
+    private void recordSets(SlashCommandEvent sc, int numSets,
+                            Map<Long, int[]> deltas, Map<String, Member> members) {
+        try {
+            CycleLedger ledger = CycleLedger.getInstance(getPrefix());
+
+            Set<Long> newPlayers = new LinkedHashSet<>();
+            Set<Long> failed = new LinkedHashSet<>();
+            List<CycleEvent> events = new ArrayList<>(deltas.size());
+            for (Map.Entry<Long, int[]> player : deltas.entrySet()) {
+                long id = player.getKey();
+                int[] delta = player.getValue();
+                Member user = members.get(Long.toString(id));
+
+                if (!ledger.contains(Long.toString(id))) {
+                    newPlayers.add(id);
+                }
+                if (user == null) {
+                    failed.add(id);
+                    continue;
+                }
+
+                events.add(new CycleEvent(CycleEvent.LOG, id,
+                        user.getUser().getAsTag(), user.getEffectiveName(),
+                        delta[0], delta[1], delta[2], delta[3]));
+            }
+
+            // a report which changed nothing is not worth an undo entry
+            CycleJournal.Entry entry = null;
+            if (!events.isEmpty()) {
+                try {
+                    entry = ledger.record(String.format("bulklog %s sets", numSets),
+                            events);
+                } catch (IOException e) {
+                    failed.addAll(deltas.keySet());
+                    log("The " + getPrefix().toUpperCase() + " bulk report "
+                            + "could not be saved.", true);
+                }
+            }
+
+            sendReport(sc, numSets, deltas, newPlayers, failed, entry);
+            log(numSets + " " + getPrefix().toUpperCase()
+                    + " draft set(s) were bulk processed.", false);
+        } catch (IOException | GeneralSecurityException e) {
+            editMessage(sc, "The leaderboard could not load.");
+            log("The " + getSection()
+                    + " cycles spreadsheet could not load.", true);
+        }
+    }
+
+    /**
+     * Runs the bulk cycle logging command.
+     * @param sc the user's inputted command.
+     *
+     * Note: Every set is checked before anything is recorded, and each
+     *       player's sets are folded into one change, so the whole
+     *       report is one journal entry and reaches the spreadsheet
+     *       within one batched projection. Players missing from the
+     *       member cache are requested from Discord together, and the
+     *       sets are recorded on a report thread, so neither blocks
+     *       Discord's threads.
+     */
+    @Override
+    public void runCmd(SlashCommandEvent sc) {
+        List<ReportedSet> sets;
+        try {
+            sets = parseSets(sc.getOptions().get(0).getAsString());
+        } catch (IllegalArgumentException e) {
+            sc.reply(e.getMessage() + " Try again.").setEphemeral(true).queue();
+            return;
+        }
+
+        sc.deferReply(false).queue();
+
+        Map<Long, int[]> deltas = foldSets(sets);
+        List<String> ids = new ArrayList<>(deltas.size());
+        for (long id : deltas.keySet()) {
+            ids.add(Long.toString(id));
+        }
+
+        findMembersAsync(sc, ids)
+                .thenAcceptAsync(members -> recordSets(
+                        sc, sets.size(), deltas, members), reportExecutor)
+                .whenComplete((ignored, e) -> {
+                    if (e != null) {
+                        editMessage(sc, "The bulk report could not be processed.");
+                        log("The " + getSection() + " bulk report "
+                                + "could not be processed.", true);
+                    }
+                });
+    }
+}
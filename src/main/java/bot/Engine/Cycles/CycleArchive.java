@@ -0,0 +1,442 @@
+package bot.Engine.Cycles;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * @author  Wil Aquino
+ * Date:    August 21, 2022
+ * Project: Libra
+ * Module:  CycleArchive.java
+ * Purpose: Archives the final stats of a cycle on disk,
+ *          column by column.
+ */
+public class CycleArchive {
+
+    /** Marks the start of an archive file ("LCYC"). */
+    private static final int MAGIC = 0x4C435943;
+
+    /** The version of the archive format. */
+    private static final int VERSION = 1;
+
+    /** The file extension of archive files. */
+    private static final String EXTENSION = ".cyc";
+
+    /** Column of the players' Discord IDs, in ascending order. */
+    public static final String IDS = "id";
+
+    /** Column of the players' formal names. */
+    public static final String NAMES = "name";
+
+    /** Column of the players' amounts of won sets. */
+    public static final String SET_WINS = "setWins";
+
+    /** Column of the players' amounts of lost sets. */
+    public static final String SET_LOSSES = "setLosses";
+
+    /** Column of the players' amounts of won games. */
+    public static final String GAME_WINS = "gameWins";
+
+    /** Column of the players' amounts of lost games. */
+    public static final String GAME_LOSSES = "gameLosses";
+
+    /** Column of the players' total points. */
+    public static final String POINTS = "points";
+
+    /** Column of the players' Top 10 placings, or -1 if unplaced. */
+    public static final String PLACINGS = "placing";
+
+    /** Column of whether the players were eligible for points (1) or not (0). */
+    public static final String ELIGIBLE = "eligible";
+
+    /** The archive file. */
+    private final Path file;
+
+    /** The time the cycle ended. */
+    private final long cycleEnd;
+
+    /** The number of players within the archive. */
+    private final int numPlayers;
+
+    /** The position of the first column, after the header. */
+    private final long dataStart;
+
+    /** The offset, compressed length and raw length of each column. */
+    private final Map<String, long[]> columns;
+
+    /**
+     * A player's archived stats for one cycle.
+     */
+    public static class PlayerCycle {
+
+        /** The time the cycle ended. */
+        private final long cycleEnd;
+
+        /** The player's amounts of won and lost sets and games. */
+        private final int setWins, setLosses, gameWins, gameLosses;
+
+        /** The player's total points. */
+        private final int points;
+
+        /** The player's Top 10 placing, or -1 if unplaced. */
+        private final int placing;
+
+        /** Flag for checking whether the player was eligible for points or not. */
+        private final boolean eligible;
+
+        /**
+         * Constructs a player's archived stats.
+         * @param end the time the cycle ended.
+         * @param stats the player's won sets, lost sets, won games, lost
+         *              games, total points and placing, in order.
+         * @param isEligible True if the player was eligible for points.
+         *                   False otherwise.
+         */
+        private PlayerCycle(long end, int[] stats, boolean isEligible) {
+            cycleEnd = end;
+            setWins = stats[0];
+            setLosses = stats[1];
+            gameWins = stats[2];
+            gameLosses = stats[3];
+            points = stats[4];
+            placing = stats[5];
+            eligible = isEligible;
+        }
+
+        /** Retrieves the time the cycle ended. */
+        public long getCycleEnd() {
+            return cycleEnd;
+        }
+
+        /** Retrieves the player's amount of won sets. */
+        public int getSetWins() {
+            return setWins;
+        }
+
+        /** Retrieves the player's amount of lost sets. */
+        public int getSetLosses() {
+            return setLosses;
+        }
+
+        /** Retrieves the player's amount of won games. */
+        public int getGameWins() {
+            return gameWins;
+        }
+
+        /** Retrieves the player's amount of lost games. */
+        public int getGameLosses() {
+            return gameLosses;
+        }
+
+        /** Retrieves the player's total points. */
+        public int getPoints() {
+            return points;
+        }
+
+        /** Retrieves the player's Top 10 placing, or -1 if unplaced. */
+        public int getPlacing() {
+            return placing;
+        }
+
+        /** Checks whether the player was eligible for points or not. */
+        public boolean isEligible() {
+            return eligible;
+        }
+    }
+
+    /**
+     * Opens an archive, reading only its header.
+     * @param archiveFile the archive file.
+     */
+    public CycleArchive(Path archiveFile) throws IOException {
+        file = archiveFile;
+        columns = new HashMap<>();
+
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("The archive " + file + " has an unknown format.");
+            }
+
+            int headerLength = in.readInt();
+            dataStart = 12L + headerLength;
+
+            cycleEnd = in.readLong();
+            numPlayers = in.readInt();
+            int numColumns = in.readInt();
+            for (int i = 0; i < numColumns; i++) {
+                columns.put(in.readUTF(), new long[] {
+                        in.readLong(), in.readInt(), in.readInt()});
+            }
+        }
+    }
+
+    /**
+     * Retrieves the file name of a cycle's archive.
+     * @param end the time the cycle ended.
+     *
+     * Note: The names sort in the order the cycles ended.
+     */
+    public static String fileName(long end) {
+        return new SimpleDateFormat("yyyy-MM-dd-HHmmss").format(new Date(end))
+                + EXTENSION;
+    }
+
+    /**
+     * Compresses a column's values.
+     * @param raw the column's values.
+     */
+    private static byte[] compress(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        deflater.setInput(raw);
+        deflater.finish();
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        byte[] chunk = new byte[4096];
+        while (!deflater.finished()) {
+            compressed.write(chunk, 0, deflater.deflate(chunk));
+        }
+        deflater.end();
+
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Archives the final stats of a cycle, replacing any archive
+     * of the same cycle in a single step.
+     * @param directory the directory holding the section's archives.
+     * @param end the time the cycle ended.
+     * @param players the stats of every player within the cycle.
+     * @param ranking the calculated ranking of the players eligible
+     *                for points.
+     *
+     * Note: Players missing from the ranking are archived as
+     *       ineligible, with no points and no placing.
+     */
+    public static void write(Path directory, long end, CycleRanking players,
+                             CycleRanking ranking) throws IOException {
+        int n = players.size();
+        int[] placings = ranking.getPlacings();
+
+        Map<String, Integer> ranks = new HashMap<>();
+        for (int rank = 0; rank < ranking.size(); rank++) {
+            ranks.put(ranking.getID(rank), rank);
+        }
+
+        // order the players by Discord ID, so IDs can be binary searched
+        Integer[] byID = new Integer[n];
+        long[] ids = new long[n];
+        for (int i = 0; i < n; i++) {
+            byID[i] = i;
+            ids[i] = Long.parseLong(players.getID(i));
+        }
+        Arrays.sort(byID, (a, b) -> Long.compare(ids[a], ids[b]));
+
+        Map<String, ByteArrayOutputStream> raw = new LinkedHashMap<>();
+        for (String column : Arrays.asList(IDS, NAMES, SET_WINS, SET_LOSSES,
+                GAME_WINS, GAME_LOSSES, POINTS, PLACINGS, ELIGIBLE)) {
+            raw.put(column, new ByteArrayOutputStream());
+        }
+
+        for (int i : byID) {
+            Integer rank = ranks.get(players.getID(i));
+            new DataOutputStream(raw.get(IDS)).writeLong(ids[i]);
+            new DataOutputStream(raw.get(NAMES)).writeUTF(
+                    players.getName(i) == null ? "" : players.getName(i));
+            new DataOutputStream(raw.get(SET_WINS)).writeInt(players.getSetWins(i));
+            new DataOutputStream(raw.get(SET_LOSSES)).writeInt(players.getSetLosses(i));
+            new DataOutputStream(raw.get(GAME_WINS)).writeInt(players.getGameWins(i));
+            new DataOutputStream(raw.get(GAME_LOSSES)).writeInt(players.getGameLosses(i));
+            new DataOutputStream(raw.get(POINTS)).writeInt(
+                    rank == null ? 0 : ranking.getTotal(rank));
+            new DataOutputStream(raw.get(PLACINGS)).writeInt(
+                    rank == null ? -1 : placings[rank]);
+            new DataOutputStream(raw.get(ELIGIBLE)).writeInt(rank == null ? 0 : 1);
+        }
+
+        ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+        DataOutputStream header = new DataOutputStream(headerBytes);
+        header.writeLong(end);
+        header.writeInt(n);
+        header.writeInt(raw.size());
+
+        List<byte[]> blocks = new ArrayList<>(raw.size());
+        long offset = 0;
+        for (Map.Entry<String, ByteArrayOutputStream> column : raw.entrySet()) {
+            byte[] block = compress(column.getValue().toByteArray());
+            blocks.add(block);
+
+            header.writeUTF(column.getKey());
+            header.writeLong(offset);
+            header.writeInt(block.length);
+            header.writeInt(column.getValue().size());
+            offset += block.length;
+        }
+
+        Files.createDirectories(directory);
+        Path archiveFile = directory.resolve(fileName(end));
+        Path temp = directory.resolve(fileName(end) + ".tmp");
+        try (FileOutputStream fileOut = new FileOutputStream(temp.toFile());
+             DataOutputStream out = new DataOutputStream(fileOut)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(headerBytes.size());
+            headerBytes.writeTo(out);
+            for (byte[] block : blocks) {
+                out.write(block);
+            }
+
+            out.flush();
+            fileOut.getFD().sync();
+        }
+
+        Files.move(temp, archiveFile, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads and decompresses one column, without reading any other.
+     * @param column the name of the column.
+     * @return a stream over the column's values.
+     */
+    private DataInputStream readColumn(String column) throws IOException {
+        long[] location = columns.get(column);
+        if (location == null) {
+            throw new IOException("The archive " + file + " has no "
+                    + column + " column.");
+        }
+
+        ByteBuffer compressed = ByteBuffer.allocate((int) location[1]);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long position = dataStart + location[0];
+            while (compressed.hasRemaining()) {
+                if (channel.read(compressed, position + compressed.position()) == -1) {
+                    throw new IOException("The archive " + file + " is truncated.");
+                }
+            }
+        }
+
+        Inflater inflater = new Inflater();
+        byte[] raw = new byte[(int) location[2]];
+        try {
+            inflater.setInput(compressed.array());
+            int inflated = 0;
+            while (inflated < raw.length && !inflater.finished()) {
+                inflated += inflater.inflate(raw, inflated, raw.length - inflated);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("The archive " + file + " is corrupted.", e);
+        } finally {
+            inflater.end();
+        }
+
+        return new DataInputStream(new ByteArrayInputStream(raw));
+    }
+
+    /**
+     * Reads a whole number column.
+     * @param column the name of the column.
+     * @return the column's values, ordered by Discord ID.
+     */
+    public int[] readInts(String column) throws IOException {
+        DataInputStream in = readColumn(column);
+        int[] values = new int[numPlayers];
+        for (int i = 0; i < numPlayers; i++) {
+            values[i] = in.readInt();
+        }
+
+        return values;
+    }
+
+    /**
+     * Reads the Discord ID column.
+     * @return the players' Discord IDs, in ascending order.
+     */
+    public long[] readIDs() throws IOException {
+        DataInputStream in = readColumn(IDS);
+        long[] values = new long[numPlayers];
+        for (int i = 0; i < numPlayers; i++) {
+            values[i] = in.readLong();
+        }
+
+        return values;
+    }
+
+    /** Retrieves the time the cycle ended. */
+    public long getCycleEnd() {
+        return cycleEnd;
+    }
+
+    /** Retrieves the number of players within the archive. */
+    public int size() {
+        return numPlayers;
+    }
+
+    /**
+     * Retrieves a player's stats over a section's most recent cycles.
+     * @param directory the directory holding the section's archives.
+     * @param id the Discord ID of the player.
+     * @param numCycles the number of recent cycles to search.
+     * @return the player's stats, from the most recent cycle.
+     *         Cycles the player did not play within are left out.
+     *
+     * Note: Only the ID column and the stat columns of each archive
+     *       are read; names are never decompressed.
+     */
+    public static List<PlayerCycle> history(Path directory, long id,
+                                            int numCycles) throws IOException {
+        List<Path> archives = new ArrayList<>();
+        if (Files.isDirectory(directory)) {
+            try (DirectoryStream<Path> files =
+                         Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+                for (Path archiveFile : files) {
+                    archives.add(archiveFile);
+                }
+            }
+        }
+        archives.sort(Collections.reverseOrder());
+
+        List<PlayerCycle> found = new ArrayList<>();
+        for (int i = 0; i < archives.size() && i < numCycles; i++) {
+            CycleArchive archive = new CycleArchive(archives.get(i));
+            int index = Arrays.binarySearch(archive.readIDs(), id);
+            if (index < 0) {
+                continue;
+            }
+
+            String[] statColumns = {SET_WINS, SET_LOSSES, GAME_WINS,
+                    GAME_LOSSES, POINTS, PLACINGS};
+            int[] stats = new int[statColumns.length];
+            for (int c = 0; c < statColumns.length; c++) {
+                stats[c] = archive.readInts(statColumns[c])[index];
+            }
+
+            boolean eligible = archive.readInts(ELIGIBLE)[index] == 1;
+            found.add(new PlayerCycle(archive.getCycleEnd(), stats, eligible));
+        }
+
+        return found;
+    }
+}
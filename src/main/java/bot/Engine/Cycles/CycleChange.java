@@ -0,0 +1,106 @@
+package bot.Engine.Cycles;
+
+import bot.Engine.Templates.Command;
+
+import net.dv8tion.jda.api.events.interaction.SlashCommandEvent;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * @author  Wil Aquino
+ * Date:    August 18, 2022
+ * Project: Libra
+ * Module:  CycleChange.java
+ * Purpose: Performs the cycle changes of every MIT section
+ *          with cycles at the same time.
+ */
+public class CycleChange implements Command {
+
+    /** The abbreviations of the sections with cycles. */
+    private static final String[] CYCLE_SECTIONS = {"lp", "io"};
+
+    /** The current stage of each section's cycle change, by section name. */
+    private final Map<String, String> stages;
+
+    /** Constructs the cycle change of every section. */
+    public CycleChange() {
+        stages = new LinkedHashMap<>();
+    }
+
+    /**
+     * Updates the stage of a section's cycle change, showing the
+     * stages of every section in one message.
+     * @param sc the user's inputted command.
+     * @param section the name of the section.
+     * @param stage the section's new stage.
+     */
+    private synchronized void report(SlashCommandEvent sc,
+                                     String section, String stage) {
+        stages.put(section, stage);
+
+        StringBuilder progress = new StringBuilder();
+        for (Map.Entry<String, String> sectionStage : stages.entrySet()) {
+            progress.append(String.format("**%s**: %s\n",
+                    sectionStage.getKey(), sectionStage.getValue()));
+        }
+
+        editMessage(sc, progress.toString());
+    }
+
+    /**
+     * Runs the cycles calculation command for every section.
+     * @param sc the command to analyze.
+     *
+     * Note: Each section's cycle change runs on its own thread, sharing
+     *       the rate limits of the spreadsheet connections, so the
+     *       sections are only slowed down by each other's requests.
+     */
+    @Override
+    public void runCmd(SlashCommandEvent sc) {
+        sc.deferReply(false).queue();
+
+        List<PointsCalculator> calculators = new ArrayList<>();
+        List<CompletableFuture<Boolean>> changes = new ArrayList<>();
+        for (String abbreviation : CYCLE_SECTIONS) {
+            PointsCalculator calculator = new PointsCalculator(abbreviation);
+            String section = calculator.getSection();
+            report(sc, section, "Waiting...");
+
+            ExecutorService thread = Executors.newSingleThreadExecutor(runnable -> {
+                Thread change = new Thread(runnable,
+                        calculator.getPrefix() + "-cycle-change");
+                change.setDaemon(true);
+                return change;
+            });
+
+            calculators.add(calculator);
+            changes.add(CompletableFuture.supplyAsync(() ->
+                    calculator.changeCycle(sc,
+                            stage -> report(sc, section, stage)), thread));
+            thread.shutdown();
+        }
+
+        CompletableFuture.allOf(changes.toArray(new CompletableFuture<?>[0]))
+                .whenComplete((ignored, error) -> {
+                    boolean allCompleted = true;
+                    for (int i = 0; i < calculators.size(); i++) {
+                        CompletableFuture<Boolean> change = changes.get(i);
+                        if (change.isCompletedExceptionally() || !change.join()) {
+                            report(sc, calculators.get(i).getSection(),
+                                    "An error occurred during the calculation.");
+                            allCompleted = false;
+                        }
+                    }
+
+                    if (allCompleted) {
+                        log("Cycle change has been completed.", false);
+                    }
+                });
+    }
+}
@@ -0,0 +1,198 @@
+package bot.Engine.Cycles;
+
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author  Wil Aquino
+ * Date:    August 19, 2022
+ * Project: Libra
+ * Module:  CycleChangeCheckpoint.java
+ * Purpose: Records the completed stages of a section's cycle
+ *          change, so a failed one can be resumed.
+ */
+public class CycleChangeCheckpoint {
+
+    /** Stage for duplicating the points spreadsheet's template tab. */
+    public static final int POINTS_TAB_CREATED = 1;
+
+    /** Stage for copying the leaderboard's stats. */
+    public static final int LEADERBOARD_COPIED = 1 << 1;
+
+    /** Stage for writing the points to the points spreadsheet. */
+    public static final int POINTS_WRITTEN = 1 << 2;
+
+    /** Stage for announcing the Top 10. */
+    public static final int TOP_TEN_ANNOUNCED = 1 << 3;
+
+    /** Stage for writing the points to the public leaderboard. */
+    public static final int LEADERBOARD_UPDATED = 1 << 4;
+
+    /** Stage for renaming the points spreadsheet's previous cycle tab. */
+    public static final int POINTS_ARCHIVED = 1 << 5;
+
+    /** Stage for renaming the points spreadsheet's current cycle tab. */
+    public static final int POINTS_ROTATED = 1 << 6;
+
+    /** Stage for renaming the leaderboard's current cycle tab. */
+    public static final int LEADERBOARD_ROTATED = 1 << 7;
+
+    /** Stage for duplicating the leaderboard's template tab. */
+    public static final int LEADERBOARD_CREATED = 1 << 8;
+
+    /** Stage for archiving the cycle's stats on disk. */
+    public static final int STATS_ARCHIVED = 1 << 9;
+
+    /** Stage for closing the ledger's cycle, starting the new one. */
+    public static final int CYCLE_RESET = 1 << 10;
+
+    /** The file name of the checkpoint. */
+    private static final String CHECKPOINT_FILE = "cyclechange.dat";
+
+    /** The age after which a checkpoint is left unresumed. */
+    private static final long MAX_AGE = TimeUnit.DAYS.toMillis(1);
+
+    /** The checkpoint file. */
+    private final Path file;
+
+    /** The time the cycle change was first started. */
+    private long startTime;
+
+    /** The completed stages, as a combination of stage flags. */
+    private int completed;
+
+    /** The copied stats of the eligible players, once copied. */
+    private CycleRanking ranking;
+
+    /**
+     * Constructs the checkpoint of a new cycle change.
+     * @param directory the directory to save the checkpoint within.
+     */
+    private CycleChangeCheckpoint(Path directory) {
+        file = directory.resolve(CHECKPOINT_FILE);
+        startTime = System.currentTimeMillis();
+        completed = 0;
+        ranking = null;
+    }
+
+    /**
+     * Loads the checkpoint of an unfinished cycle change.
+     * @param directory the directory the checkpoint is saved within.
+     * @return said checkpoint.
+     *         A new checkpoint if there is none, or if it is too old
+     *         or could not be read.
+     */
+    public static CycleChangeCheckpoint load(Path directory) {
+        CycleChangeCheckpoint checkpoint = new CycleChangeCheckpoint(directory);
+        if (!Files.exists(checkpoint.file)) {
+            return checkpoint;
+        }
+
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(checkpoint.file)))) {
+            long startTime = in.readLong();
+            int completed = in.readInt();
+            CycleRanking ranking = null;
+            if ((completed & LEADERBOARD_COPIED) != 0) {
+                ranking = CycleRanking.read(in);
+            }
+
+            if (System.currentTimeMillis() - startTime > MAX_AGE) {
+                LoggerFactory.getLogger(CycleChangeCheckpoint.class).warn(
+                        "An old cycle change checkpoint was discarded.");
+                return checkpoint;
+            }
+
+            checkpoint.startTime = startTime;
+            checkpoint.completed = completed;
+            checkpoint.ranking = ranking;
+        } catch (IOException e) {
+            LoggerFactory.getLogger(CycleChangeCheckpoint.class).warn(
+                    "The cycle change checkpoint could not be read.");
+        }
+
+        return checkpoint;
+    }
+
+    /**
+     * Checks whether the checkpoint continues an earlier
+     * cycle change or not.
+     */
+    public boolean isResumed() {
+        return completed != 0;
+    }
+
+    /** Retrieves the time the cycle change was first started. */
+    public long getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * Checks whether a stage was completed or not.
+     * @param stage the stage to check.
+     */
+    public boolean isDone(int stage) {
+        return (completed & stage) != 0;
+    }
+
+    /**
+     * Retrieves the copied stats of the eligible players.
+     * @return said stats.
+     *         null if the leaderboard was not copied yet.
+     */
+    public CycleRanking getRanking() {
+        return ranking;
+    }
+
+    /**
+     * Records the copied stats of the eligible players, completing
+     * the copying stage.
+     * @param copied the copied stats.
+     */
+    public void completeCopy(CycleRanking copied) throws IOException {
+        ranking = copied;
+        complete(LEADERBOARD_COPIED);
+    }
+
+    /**
+     * Records a completed stage, replacing the saved checkpoint
+     * in a single step.
+     * @param stage the completed stage.
+     */
+    public void complete(int stage) throws IOException {
+        completed |= stage;
+
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temp = file.resolveSibling(CHECKPOINT_FILE + ".tmp");
+        try (FileOutputStream fileOut = new FileOutputStream(temp.toFile());
+             DataOutputStream out = new DataOutputStream(
+                     new BufferedOutputStream(fileOut))) {
+            out.writeLong(startTime);
+            out.writeInt(completed);
+            if (ranking != null) {
+                ranking.write(out);
+            }
+
+            out.flush();
+            fileOut.getFD().sync();
+        }
+
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** Deletes the checkpoint once the cycle change is finished. */
+    public void clear() throws IOException {
+        Files.deleteIfExists(file);
+    }
+}
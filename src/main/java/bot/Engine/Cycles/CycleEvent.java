@@ -0,0 +1,225 @@
+package bot.Engine.Cycles;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @author  Wil Aquino
+ * Date:    August 13, 2022
+ * Project: Libra
+ * Module:  CycleEvent.java
+ * Purpose: Represents a change to a player's cycle stats,
+ *          as stored within a section's event log.
+ */
+public class CycleEvent {
+
+    /** A set reported through a draft. */
+    public static final byte LOG = 0;
+
+    /** Games reported for a sub. */
+    public static final byte SUB = 1;
+
+    /** A reversal of an earlier report. */
+    public static final byte UNDO = 2;
+
+    /** A player's stats as they were within the spreadsheet. */
+    public static final byte BASELINE = 3;
+
+    /** The start of a new cycle, clearing every player's stats. */
+    public static final byte RESET = 4;
+
+    /** The type of the event. */
+    private final byte type;
+
+    /** The Discord ID of the player (or the cycle change's start time, for a reset). */
+    private final long playerID;
+
+    /** The formal name of the player, if known. */
+    private final String name;
+
+    /** The nickname of the player, if known. */
+    private final String nickname;
+
+    /** The change in won sets (or the amount, for a baseline). */
+    private final int setWins;
+
+    /** The change in lost sets (or the amount, for a baseline). */
+    private final int setLosses;
+
+    /** The change in won games (or the amount, for a baseline). */
+    private final int gameWins;
+
+    /** The change in lost games (or the amount, for a baseline). */
+    private final int gameLosses;
+
+    /**
+     * Constructs an event.
+     * @param type the type of the event.
+     * @param playerID the Discord ID of the player.
+     * @param name the formal name of the player, if known.
+     * @param nickname the nickname of the player, if known.
+     * @param setWins the change in won sets.
+     * @param setLosses the change in lost sets.
+     * @param gameWins the change in won games.
+     * @param gameLosses the change in lost games.
+     */
+    public CycleEvent(byte type, long playerID, String name, String nickname,
+                      int setWins, int setLosses, int gameWins, int gameLosses) {
+        this.type = type;
+        this.playerID = playerID;
+        this.name = name == null ? "" : name;
+        this.nickname = nickname == null ? "" : nickname;
+        this.setWins = setWins;
+        this.setLosses = setLosses;
+        this.gameWins = gameWins;
+        this.gameLosses = gameLosses;
+    }
+
+    /**
+     * Constructs the event of a reported set.
+     * @param isSub True if the player subbed into the set.
+     *              False otherwise.
+     * @param playerID the Discord ID of the player.
+     * @param name the formal name of the player.
+     * @param nickname the nickname of the player.
+     * @param gamesPlayed the amount of games played.
+     * @param gamesWon the amount of games won.
+     * @return the event.
+     *
+     * Note: A set only counts towards set wins or losses if the
+     *       player was not a sub and at least one game was played.
+     */
+    public static CycleEvent report(boolean isSub, long playerID,
+                                    String name, String nickname,
+                                    int gamesPlayed, int gamesWon) {
+        int setWins = 0;
+        int setLosses = 0;
+        if (!isSub && gamesPlayed > 0) {
+            if (gamesWon >= (double) gamesPlayed / 2) {
+                setWins = 1;
+            } else {
+                setLosses = 1;
+            }
+        }
+
+        return new CycleEvent(isSub ? SUB : LOG, playerID, name, nickname,
+                setWins, setLosses, gamesWon, gamesPlayed - gamesWon);
+    }
+
+    /**
+     * Constructs the event of a new cycle starting.
+     * @param cycleChange the start time of the cycle change starting it.
+     */
+    public static CycleEvent reset(long cycleChange) {
+        return new CycleEvent(RESET, cycleChange, null, null, 0, 0, 0, 0);
+    }
+
+    /**
+     * Retrieves the event which reverses this one.
+     */
+    public CycleEvent inverse() {
+        return new CycleEvent(UNDO, playerID, name, nickname,
+                -setWins, -setLosses, -gameWins, -gameLosses);
+    }
+
+    /**
+     * Encodes a string, prefixed by its length.
+     * @param buffer the buffer to encode into.
+     * @param str the string to encode.
+     */
+    private static void putString(ByteBuffer buffer, byte[] str) {
+        buffer.putShort((short) str.length).put(str);
+    }
+
+    /**
+     * Decodes a string, prefixed by its length.
+     * @param buffer the buffer to decode from.
+     */
+    private static String getString(ByteBuffer buffer) {
+        byte[] str = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(str);
+        return new String(str, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Encodes the event into its stored format.
+     * @return the encoded event, ready to be read.
+     */
+    public ByteBuffer encode() {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        byte[] nicknameBytes = nickname.getBytes(StandardCharsets.UTF_8);
+
+        ByteBuffer buffer = ByteBuffer.allocate(1 + Long.BYTES + 4 * Integer.BYTES
+                + 2 * Short.BYTES + nameBytes.length + nicknameBytes.length);
+        buffer.put(type)
+                .putLong(playerID)
+                .putInt(setWins)
+                .putInt(setLosses)
+                .putInt(gameWins)
+                .putInt(gameLosses);
+        putString(buffer, nameBytes);
+        putString(buffer, nicknameBytes);
+
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Decodes an event from its stored format.
+     * @param buffer the encoded event.
+     * @return the event.
+     */
+    public static CycleEvent decode(ByteBuffer buffer) {
+        byte type = buffer.get();
+        long playerID = buffer.getLong();
+        int setWins = buffer.getInt();
+        int setLosses = buffer.getInt();
+        int gameWins = buffer.getInt();
+        int gameLosses = buffer.getInt();
+        String name = getString(buffer);
+        String nickname = getString(buffer);
+
+        return new CycleEvent(type, playerID, name, nickname,
+                setWins, setLosses, gameWins, gameLosses);
+    }
+
+    /** Retrieves the type of the event. */
+    public byte getType() {
+        return type;
+    }
+
+    /** Retrieves the Discord ID of the player. */
+    public long getPlayerID() {
+        return playerID;
+    }
+
+    /** Retrieves the formal name of the player, if known. */
+    public String getName() {
+        return name;
+    }
+
+    /** Retrieves the nickname of the player, if known. */
+    public String getNickname() {
+        return nickname;
+    }
+
+    /** Retrieves the change in won sets. */
+    public int getSetWins() {
+        return setWins;
+    }
+
+    /** Retrieves the change in lost sets. */
+    public int getSetLosses() {
+        return setLosses;
+    }
+
+    /** Retrieves the change in won games. */
+    public int getGameWins() {
+        return gameWins;
+    }
+
+    /** Retrieves the change in lost games. */
+    public int getGameLosses() {
+        return gameLosses;
+    }
+}
@@ -0,0 +1,469 @@
+package bot.Engine.Cycles;
+
+import bot.Tools.EventLog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.ListIterator;
+
+/**
+ * @author  Wil Aquino
+ * Date:    August 22, 2022
+ * Project: Libra
+ * Module:  CycleJournal.java
+ * Purpose: Journals the reports applied to a section's cycle,
+ *          so any recent one can be undone or redone.
+ */
+public class CycleJournal {
+
+    /** A record of a reported command and the changes it applied. */
+    private static final byte REPORT = 0;
+
+    /** A record of a report being undone. */
+    private static final byte UNDO = 1;
+
+    /** A record of an undone report being redone. */
+    private static final byte REDO = 2;
+
+    /** A record cancelling the record before it, whose changes were never stored. */
+    private static final byte VOID = 3;
+
+    /** A record forgetting every report before it. */
+    private static final byte CLEAR = 4;
+
+    /** The directory, within the section's cycle directory, holding the journal. */
+    private static final String JOURNAL_DIRECTORY = "journal";
+
+    /** The number of recent reports which can be undone or redone. */
+    private static final int MAX_ENTRIES = 50;
+
+    /** The journal's records. */
+    private final EventLog records;
+
+    /** The recent reports, by journal sequence number, from the oldest. */
+    private final LinkedHashMap<Long, Entry> entries;
+
+    /** The most recent records which changed the reports, from the oldest. */
+    private final ArrayDeque<Record> recent;
+
+    /** The records waiting to be stored together. */
+    private final List<ByteBuffer> pending;
+
+    /** The journal sequence number of the last record forgetting every report, or 0. */
+    private long lastClear;
+
+    /**
+     * A record which changed the reports, kept so it can be cancelled
+     * if its changes turn out to be missing from the event log.
+     */
+    private static class Record {
+
+        /** The type of the record. */
+        private final byte type;
+
+        /** The report targeted by the record, if any. */
+        private final Entry target;
+
+        /** The event log sequence number of the record's first change. */
+        private final long firstEvent;
+
+        /**
+         * Constructs a record.
+         * @param recordType the type of the record.
+         * @param report the report targeted by the record, if any.
+         * @param first the event log sequence number of its first change.
+         */
+        private Record(byte recordType, Entry report, long first) {
+            type = recordType;
+            target = report;
+            firstEvent = first;
+        }
+    }
+
+    /**
+     * A reported command and the changes it applied.
+     */
+    public static class Entry {
+
+        /** The journal sequence number of the report. */
+        private final long sequence;
+
+        /** The reported command, as it was typed. */
+        private final String command;
+
+        /** The time the command was reported. */
+        private final long time;
+
+        /** The changes applied by the report. */
+        private final List<CycleEvent> events;
+
+        /** The event log sequence number of the report's first change. */
+        private final long firstEvent;
+
+        /** Flag for checking whether the report is undone or not. */
+        private boolean undone;
+
+        /**
+         * Constructs a report.
+         * @param seq the journal sequence number of the report.
+         * @param cmd the reported command.
+         * @param reportTime the time the command was reported.
+         * @param changes the changes applied by the report.
+         * @param first the event log sequence number of the first change.
+         */
+        private Entry(long seq, String cmd, long reportTime,
+                      List<CycleEvent> changes, long first) {
+            sequence = seq;
+            command = cmd;
+            time = reportTime;
+            events = changes;
+            firstEvent = first;
+            undone = false;
+        }
+
+        /** Retrieves the journal sequence number of the report. */
+        public long getSequence() {
+            return sequence;
+        }
+
+        /** Retrieves the reported command. */
+        public String getCommand() {
+            return command;
+        }
+
+        /** Retrieves the time the command was reported. */
+        public long getTime() {
+            return time;
+        }
+
+        /** Retrieves the changes applied by the report. */
+        public List<CycleEvent> getEvents() {
+            return events;
+        }
+
+        /** Checks whether the report is undone or not. */
+        public boolean isUndone() {
+            return undone;
+        }
+
+        /**
+         * Retrieves the changes which reverse the report.
+         */
+        public List<CycleEvent> inverse() {
+            List<CycleEvent> inverse = new ArrayList<>(events.size());
+            for (CycleEvent event : events) {
+                inverse.add(event.inverse());
+            }
+
+            return inverse;
+        }
+    }
+
+    /**
+     * Opens a section's journal, folding its records into
+     * the recent reports.
+     * @param directory the section's cycle directory.
+     */
+    public CycleJournal(Path directory) throws IOException {
+        records = new EventLog(directory.resolve(JOURNAL_DIRECTORY));
+        entries = new LinkedHashMap<>();
+        recent = new ArrayDeque<>();
+        pending = new ArrayList<>();
+        lastClear = 0;
+
+        IOException[] error = new IOException[1];
+        records.readAll((sequence, payload) -> {
+            try {
+                fold(sequence, payload);
+            } catch (RuntimeException e) {
+                error[0] = new IOException("Journal record " + sequence
+                        + " could not be read.", e);
+            }
+        });
+        if (error[0] != null) {
+            throw error[0];
+        }
+    }
+
+    /**
+     * Encodes a string, prefixed by its length.
+     * @param buffer the buffer to encode into.
+     * @param str the string to encode.
+     */
+    private static void putString(ByteBuffer buffer, byte[] str) {
+        buffer.putShort((short) str.length).put(str);
+    }
+
+    /**
+     * Folds a stored record into the recent reports.
+     * @param sequence the journal sequence number of the record.
+     * @param payload the contents of the record.
+     */
+    private void fold(long sequence, ByteBuffer payload) {
+        byte type = payload.get();
+        long target = payload.getLong();
+        long firstEvent = payload.getLong();
+
+        switch (type) {
+            case REPORT:
+                long time = payload.getLong();
+                byte[] command = new byte[payload.getShort() & 0xFFFF];
+                payload.get(command);
+
+                int numEvents = payload.getInt();
+                List<CycleEvent> events = new ArrayList<>(numEvents);
+                for (int i = 0; i < numEvents; i++) {
+                    ByteBuffer event = payload.slice();
+                    event.limit(payload.getShort(payload.position()) & 0xFFFF);
+                    payload.position(payload.position() + event.limit());
+                    event.position(Short.BYTES);
+                    events.add(CycleEvent.decode(event));
+                }
+
+                Entry entry = new Entry(sequence,
+                        new String(command, StandardCharsets.UTF_8),
+                        time, events, firstEvent);
+                entries.put(sequence, entry);
+                trim();
+                remember(REPORT, entry, firstEvent);
+                break;
+            case UNDO:
+            case REDO:
+                Entry targeted = entries.get(target);
+                if (targeted != null) {
+                    targeted.undone = type == UNDO;
+                }
+                remember(type, targeted, firstEvent);
+                break;
+            case CLEAR:
+                entries.clear();
+                recent.clear();
+                lastClear = sequence;
+                break;
+            default:
+                cancelLast();
+                break;
+        }
+    }
+
+    /**
+     * Remembers a record, so it can be cancelled if its changes
+     * turn out to be missing from the event log.
+     * @param type the type of the record.
+     * @param target the report targeted by the record, if any.
+     * @param firstEvent the event log sequence number of its first change.
+     */
+    private void remember(byte type, Entry target, long firstEvent) {
+        recent.addLast(new Record(type, target, firstEvent));
+        if (recent.size() > MAX_ENTRIES) {
+            recent.removeFirst();
+        }
+    }
+
+    /** Reverses the folding of the most recent uncancelled record. */
+    private void cancelLast() {
+        Record last = recent.pollLast();
+        if (last == null || last.target == null) {
+            return;
+        }
+
+        if (last.type == REPORT) {
+            entries.remove(last.target.sequence);
+        } else {
+            last.target.undone = last.type == REDO;
+        }
+    }
+
+    /** Forgets the oldest reports past the recent ones. */
+    private void trim() {
+        Iterator<Long> oldest = entries.keySet().iterator();
+        while (entries.size() > MAX_ENTRIES) {
+            oldest.next();
+            oldest.remove();
+        }
+    }
+
+    /**
+     * Queues a record to be stored with the next commit.
+     * @param type the type of the record.
+     * @param target the journal sequence number of the targeted report, if any.
+     * @param firstEvent the event log sequence number of its first change.
+     * @param extra the rest of the record, if any.
+     * @return the journal sequence number the record will be stored at.
+     */
+    private long stage(byte type, long target, long firstEvent,
+                       ByteBuffer extra) {
+        int extraLength = extra == null ? 0 : extra.remaining();
+        ByteBuffer record = ByteBuffer.allocate(
+                1 + 2 * Long.BYTES + extraLength);
+        record.put(type).putLong(target).putLong(firstEvent);
+        if (extra != null) {
+            record.put(extra);
+        }
+        record.flip();
+
+        pending.add(record);
+        return records.getLastSequence() + pending.size();
+    }
+
+    /**
+     * Stores every queued record in one write, forcing them to
+     * disk before returning.
+     */
+    public void commit() throws IOException {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        records.append(pending);
+        pending.clear();
+    }
+
+    /**
+     * Cancels the most recent records whose changes are missing from
+     * the event log, as happens when the bot stops between the two writes.
+     * @param lastEvent the sequence number of the event log's last event.
+     */
+    public void verify(long lastEvent) throws IOException {
+        while (!recent.isEmpty() && recent.peekLast().firstEvent > lastEvent) {
+            stage(VOID, 0, 0, null);
+            cancelLast();
+        }
+
+        commit();
+    }
+
+    /**
+     * Forgets the reports made before a new cycle started,
+     * as they can no longer be undone.
+     * @param cycleStart the event log sequence number of the new cycle.
+     */
+    public void forgetBefore(long cycleStart) {
+        entries.values().removeIf(entry -> entry.firstEvent < cycleStart);
+    }
+
+    /**
+     * Forgets every report, as happens when the event log
+     * is started over.
+     */
+    public void clear() throws IOException {
+        if (records.getLastSequence() != 0) {
+            stage(CLEAR, 0, 0, null);
+            commit();
+            lastClear = records.getLastSequence();
+        }
+
+        entries.clear();
+        recent.clear();
+    }
+
+    /**
+     * Deletes the stored records before the last one forgetting
+     * every report, as they no longer fold into anything.
+     */
+    public void compact() throws IOException {
+        if (lastClear != 0) {
+            records.deleteBefore(lastClear);
+        }
+    }
+
+    /**
+     * Journals a report, to be committed before its changes are stored.
+     * @param command the reported command.
+     * @param events the changes to apply.
+     * @param firstEvent the event log sequence number the first
+     *                   change will be stored at.
+     * @return the journaled report.
+     */
+    public Entry report(String command, List<CycleEvent> events,
+                        long firstEvent) {
+        byte[] commandBytes = command.getBytes(StandardCharsets.UTF_8);
+        List<ByteBuffer> encoded = new ArrayList<>(events.size());
+        int length = Long.BYTES + Short.BYTES + commandBytes.length + Integer.BYTES;
+        for (CycleEvent event : events) {
+            ByteBuffer payload = event.encode();
+            encoded.add(payload);
+            length += Short.BYTES + payload.remaining();
+        }
+
+        long time = System.currentTimeMillis();
+        ByteBuffer extra = ByteBuffer.allocate(length);
+        extra.putLong(time);
+        putString(extra, commandBytes);
+        extra.putInt(events.size());
+        for (ByteBuffer payload : encoded) {
+            extra.putShort((short) (Short.BYTES + payload.remaining())).put(payload);
+        }
+        extra.flip();
+
+        long sequence = stage(REPORT, 0, firstEvent, extra);
+        Entry entry = new Entry(sequence, command, time,
+                new ArrayList<>(events), firstEvent);
+        entries.put(sequence, entry);
+        trim();
+        remember(REPORT, entry, firstEvent);
+
+        return entry;
+    }
+
+    /**
+     * Journals a report being undone or redone, to be committed
+     * before its changes are stored.
+     * @param entry the report.
+     * @param undo True if the report is being undone.
+     *             False if it is being redone.
+     * @param firstEvent the event log sequence number the first
+     *                   change will be stored at.
+     */
+    public void toggle(Entry entry, boolean undo, long firstEvent) {
+        byte type = undo ? UNDO : REDO;
+        stage(type, entry.sequence, firstEvent, null);
+        entry.undone = undo;
+        remember(type, entry, firstEvent);
+    }
+
+    /**
+     * Retrieves a recent report.
+     * @param sequence the journal sequence number of the report.
+     * @return said report.
+     *         null if it is not recent enough.
+     */
+    public Entry getEntry(long sequence) {
+        return entries.get(sequence);
+    }
+
+    /**
+     * Retrieves the most recent report which is undone or not.
+     * @param undone True to find an undone report.
+     *               False to find one which still applies.
+     * @return said report.
+     *         null if there is none.
+     */
+    public Entry getLatest(boolean undone) {
+        List<Entry> recent = new ArrayList<>(entries.values());
+        ListIterator<Entry> newest = recent.listIterator(recent.size());
+        while (newest.hasPrevious()) {
+            Entry entry = newest.previous();
+            if (entry.undone == undone) {
+                return entry;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Retrieves the recent reports.
+     * @return said reports, from the oldest.
+     */
+    public List<Entry> getEntries() {
+        return new ArrayList<>(entries.values());
+    }
+}
@@ -0,0 +1,1085 @@
+package bot.Engine.Cycles;
+
+import bot.Engine.Section;
+import bot.Tools.EventLog;
+import bot.Tools.GoogleSheetsAPI;
+import bot.Tools.SectionIndex;
+
+import com.google.api.services.sheets.v4.model.ValueRange;
+
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * @author  Wil Aquino
+ * Date:    August 13, 2022
+ * Project: Libra
+ * Module:  CycleLedger.java
+ * Purpose: Keeps a section's cycle stats in a local event log,
+ *          projecting them onto the cycles spreadsheet in
+ *          the background.
+ *
+ * Note: Every change goes through the ledger's mailbox, which a
+ *       single writer thread drains, so the writer alone changes
+ *       the players' stats and reports never overwrite each other.
+ */
+public class CycleLedger extends Section {
+
+    /** The directory holding each section's event log. */
+    private static final String LOG_DIRECTORY = "cycles";
+
+    /** Seconds between each projection onto the spreadsheet. */
+    private static final int PROJECT_SECONDS = 5;
+
+    /** The number of changed rows which triggers a projection right away. */
+    private static final int FLUSH_ROWS = 20;
+
+    /** The largest number of queued changes stored together. */
+    private static final int MAX_BATCH = 32;
+
+    /** Seconds to wait for the writer thread to store a change. */
+    private static final int SUBMIT_SECONDS = 120;
+
+    /** The file, within the log's directory, recording what the spreadsheet holds. */
+    private static final String CHECKPOINT_FILE = "projection.dat";
+
+    /** The file, within the log's directory, marking projections as paused. */
+    private static final String PAUSE_FILE = "projection.paused";
+
+    /** The ledger of each section, indexed by section prefix. */
+    private static final Map<String, CycleLedger> instances =
+            new ConcurrentHashMap<>();
+
+    /** The section's event log. */
+    private EventLog events;
+
+    /** The journal of the section's recent reports, for undoing and redoing them. */
+    private CycleJournal journal;
+
+    /** The sequence number of the event which started the current cycle. */
+    private long cycleStart;
+
+    /** The start time of the cycle change which started the current cycle, or 0. */
+    private long lastReset;
+
+    /** The sequence number of the cycle start the stored files were compacted to. */
+    private long compactedTo;
+
+    /** The directory holding the section's event log and checkpoint. */
+    private final Path directory;
+
+    /** The players' current stats, indexed by Discord ID. */
+    private SectionIndex<Standing> standings;
+
+    /** The provisional Top 10 of the players' current stats. */
+    private final LiveRanking live;
+
+    /** The number of cycles started, for spotting resets during a projection. */
+    private long generation;
+
+    /** Flag for checking whether the events have been loaded or not. */
+    private volatile boolean loaded;
+
+    /** The Discord IDs of the players with stats, readable by any thread. */
+    private final Set<Long> players;
+
+    /** The provisional Top 10, as of the last stored changes. */
+    private volatile List<LiveRanking.Placement> topTen;
+
+    /** The changes waiting for the writer thread. */
+    private final BlockingQueue<Mutation> mailbox;
+
+    /** The thread storing every change of the section, once started. */
+    private Thread writer;
+
+    /**
+     * Flag for checking whether the whole spreadsheet tab must be
+     * rewritten, as the spreadsheet rows of the players are unknown.
+     */
+    private boolean needsRebuild;
+
+    /** The number of players whose changes have not been projected. */
+    private int dirtyRows;
+
+    /**
+     * Flag for checking whether projections are paused or not, as
+     * happens while a cycle change rotates the spreadsheet tabs.
+     */
+    private volatile boolean paused;
+
+    /** Lock held while projecting, so projections do not overlap. */
+    private final Object projectLock;
+
+    /** The thread projecting changes onto the spreadsheet, once started. */
+    private ScheduledExecutorService projector;
+
+    /** Flag for checking whether an early projection is already queued. */
+    private final AtomicBoolean flushQueued;
+
+    /**
+     * A change waiting within the mailbox.
+     */
+    private static class Mutation {
+
+        /** The reported command, or null if it is not journaled. */
+        private final String command;
+
+        /** The changes to record, if not undoing or redoing. */
+        private final List<CycleEvent> events;
+
+        /** The journal sequence number of the report to undo or redo. */
+        private final long entry;
+
+        /** True to undo, False to redo, or null if recording. */
+        private final Boolean undo;
+
+        /** Flag for checking whether the change closes the cycle or not. */
+        private final boolean closing;
+
+        /** The journaled report, once the change is stored. */
+        private final CompletableFuture<CycleJournal.Entry> result;
+
+        /**
+         * Constructs a change.
+         * @param cmd the reported command, or null if it is not journaled.
+         * @param changes the changes to record, if not undoing or redoing.
+         * @param sequence the journal sequence number of the report
+         *                 to undo or redo.
+         * @param isUndo True to undo, False to redo, or null if recording.
+         * @param isClosing True if the change closes the cycle.
+         *                  False otherwise.
+         */
+        private Mutation(String cmd, List<CycleEvent> changes,
+                         long sequence, Boolean isUndo, boolean isClosing) {
+            command = cmd;
+            events = changes;
+            entry = sequence;
+            undo = isUndo;
+            closing = isClosing;
+            result = new CompletableFuture<>();
+        }
+    }
+
+    /**
+     * A player's stats, as folded from the event log.
+     */
+    private static class Standing {
+
+        /** The formal name of the player. */
+        private String name;
+
+        /** The nickname of the player. */
+        private String nickname;
+
+        /** The player's amounts of won and lost sets and games. */
+        private int setWins, setLosses, gameWins, gameLosses;
+
+        /** The numbered spreadsheet row of the player, or -1 if unknown. */
+        private int position;
+
+        /** The number of changes made to the stats. */
+        private long version;
+
+        /** The number of changes which have been projected. */
+        private long projectedVersion;
+
+        /**
+         * Builds the player's row within the cycles spreadsheet.
+         * @return the row, from the player's name to their game winrate.
+         */
+        private List<Object> toRow() {
+            int setsPlayed = setWins + setLosses;
+            double setWinrate = 0.0;
+            if (setsPlayed > 0) {
+                setWinrate = (double) setWins / setsPlayed;
+            }
+
+            int gamesPlayed = gameWins + gameLosses;
+            double gameWinrate = 0.0;
+            if (gamesPlayed > 0) {
+                gameWinrate = (double) gameWins / gamesPlayed;
+            }
+
+            return new ArrayList<>(Arrays.asList(name, nickname,
+                    setWins, setLosses, setsPlayed, setWinrate,
+                    gameWins, gameLosses, gamesPlayed, gameWinrate));
+        }
+    }
+
+    /**
+     * Constructs the (empty) ledger of a section.
+     * @param abbreviation the abbreviation of the section.
+     */
+    private CycleLedger(String abbreviation) {
+        super(abbreviation);
+
+        directory = Paths.get(LOG_DIRECTORY, getPrefix());
+        standings = new SectionIndex<>(0);
+        live = new LiveRanking(getMinimumSets());
+        generation = 0;
+        cycleStart = 0;
+        lastReset = 0;
+        compactedTo = 0;
+        loaded = false;
+        players = ConcurrentHashMap.newKeySet();
+        topTen = Collections.emptyList();
+        mailbox = new LinkedBlockingQueue<>();
+        needsRebuild = false;
+        dirtyRows = 0;
+        paused = false;
+        projectLock = new Object();
+        flushQueued = new AtomicBoolean(false);
+    }
+
+    /**
+     * Retrieves the ledger of a section.
+     * @param abbreviation the abbreviation of the section.
+     */
+    public static CycleLedger getInstance(String abbreviation) {
+        return instances.computeIfAbsent(abbreviation, CycleLedger::new);
+    }
+
+    /**
+     * Loads the section's events and begins projecting them
+     * onto the spreadsheet in the background.
+     */
+    public synchronized void start() {
+        try {
+            ensureLoaded();
+        } catch (IOException | GeneralSecurityException e) {
+            LoggerFactory.getLogger(this.getClass()).error(
+                    "The " + getSection() + " cycle log could not load.");
+        }
+
+        startWriter();
+        if (projector != null) {
+            return;
+        }
+
+        projector = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable,
+                    getPrefix() + "-cycle-projector");
+            thread.setDaemon(true);
+            return thread;
+        });
+        projector.scheduleWithFixedDelay(this::project,
+                PROJECT_SECONDS, PROJECT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /** Starts the thread storing the section's changes, if not started yet. */
+    private synchronized void startWriter() {
+        if (writer != null) {
+            return;
+        }
+
+        writer = new Thread(this::write, getPrefix() + "-cycle-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stores the changes within the mailbox as they arrive, taking
+     * every change queued meanwhile (up to a limit) as one batch.
+     *
+     * Note: A change closing the cycle splits its batch, so the
+     *       changes queued before it are stored within the old cycle
+     *       and those queued after it within the new one. An unexpected
+     *       failure fails the rest of the batch and reloads the ledger
+     *       from disk, but never stops the thread.
+     */
+    private void write() {
+        List<Mutation> batch = new ArrayList<>(MAX_BATCH);
+        while (true) {
+            try {
+                batch.add(mailbox.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            mailbox.drainTo(batch, MAX_BATCH - 1);
+            try {
+                int start = 0;
+                for (int i = 0; i < batch.size(); i++) {
+                    if (batch.get(i).closing) {
+                        store(batch.subList(start, i));
+                        close(batch.get(i));
+                        start = i + 1;
+                    }
+                }
+                store(batch.subList(start, batch.size()));
+            } catch (Throwable e) {
+                LoggerFactory.getLogger(this.getClass()).error(
+                        "The " + getSection() + " cycle writer failed a batch.", e);
+                try {
+                    reload();
+                } catch (RuntimeException reloadError) {
+                    LoggerFactory.getLogger(this.getClass()).error(
+                            "The " + getSection() + " cycle log could not reload.",
+                            reloadError);
+                }
+
+                // changes already stored keep their result
+                for (Mutation mutation : batch) {
+                    mutation.result.completeExceptionally(e);
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Stores a batch of changes, journaling them in one write
+     * and storing their events in another.
+     * @param batch the changes to store.
+     *
+     * Note: If either write fails, every change within the batch
+     *       fails, and the ledger is reloaded from disk, keeping
+     *       whatever part of the batch was stored.
+     */
+    private void store(List<Mutation> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<CycleJournal.Entry> results = new ArrayList<>(batch.size());
+        try {
+            synchronized (this) {
+                ensureLoaded();
+
+                long nextEvent = events.getLastSequence() + 1;
+                List<CycleEvent> changes = new ArrayList<>();
+                for (Mutation mutation : batch) {
+                    CycleJournal.Entry entry = null;
+                    List<CycleEvent> mutationEvents = mutation.events;
+
+                    if (mutation.undo != null) {
+                        boolean undo = mutation.undo;
+                        entry = mutation.entry == 0
+                                ? journal.getLatest(!undo)
+                                : journal.getEntry(mutation.entry);
+                        if (entry == null || entry.isUndone() == undo) {
+                            entry = null;
+                            mutationEvents = Collections.emptyList();
+                        } else {
+                            journal.toggle(entry, undo, nextEvent);
+                            mutationEvents = undo ? entry.inverse() : entry.getEvents();
+                        }
+                    } else if (mutation.command != null && !mutationEvents.isEmpty()) {
+                        entry = journal.report(mutation.command, mutationEvents, nextEvent);
+                    }
+
+                    results.add(entry);
+                    changes.addAll(mutationEvents);
+                    nextEvent += mutationEvents.size();
+                }
+
+                journal.commit();
+                append(changes);
+                topTen = Collections.unmodifiableList(live.getTopTen());
+            }
+        } catch (IOException | GeneralSecurityException e) {
+            reload();
+            for (Mutation mutation : batch) {
+                mutation.result.completeExceptionally(e);
+            }
+            return;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).result.complete(results.get(i));
+        }
+        checkFlushThreshold();
+    }
+
+    /**
+     * Closes the current cycle, projecting every change stored within
+     * it, pausing projections and then starting a new cycle.
+     * @param mutation the change closing the cycle.
+     *
+     * Note: As only the writer thread runs this, no report can be
+     *       stored between the last projection and the new cycle,
+     *       so each report lands within exactly one of them. If the
+     *       cycle change already started the new cycle, only the
+     *       projections are paused again.
+     */
+    private void close(Mutation mutation) {
+        try {
+            synchronized (projectLock) {
+                ensureLoaded();
+                CycleEvent reset = mutation.events.get(0);
+                boolean alreadyReset = lastReset == reset.getPlayerID();
+                if (!alreadyReset) {
+                    flush(true);
+                }
+
+                Path marker = directory.resolve(PAUSE_FILE);
+                if (!Files.exists(marker)) {
+                    Files.createFile(marker);
+                }
+                paused = true;
+
+                if (!alreadyReset) {
+                    synchronized (this) {
+                        append(mutation.events);
+                        journal.clear();
+                        topTen = Collections.unmodifiableList(live.getTopTen());
+                    }
+                }
+            }
+        } catch (IOException | GeneralSecurityException e) {
+            mutation.result.completeExceptionally(e);
+            return;
+        }
+
+        mutation.result.complete(null);
+    }
+
+    /**
+     * Reloads the event log and journal from disk after a failed write,
+     * refolding the players' stats from the events which were stored
+     * and dropping any report whose changes were not.
+     *
+     * Note: The whole spreadsheet tab is rewritten on the next
+     *       projection, as one already under way may have added
+     *       rows the checkpoint does not know of.
+     */
+    private synchronized void reload() {
+        if (!loaded) {
+            return;
+        }
+
+        loaded = false;
+        events = null;
+        journal = null;
+        standings = new SectionIndex<>(standings.size());
+        players.clear();
+        live.clear();
+        generation++;
+        dirtyRows = 0;
+        cycleStart = 0;
+        lastReset = 0;
+
+        try {
+            ensureLoaded();
+            needsRebuild = true;
+        } catch (IOException | GeneralSecurityException e) {
+            LoggerFactory.getLogger(this.getClass()).error(
+                    "The " + getSection() + " cycle log could not reload.");
+        }
+    }
+
+    /**
+     * Queues a change for the writer thread, waiting until it is stored.
+     * @param mutation the change to store.
+     * @return the journaled report, if any.
+     *
+     * Note: A change which times out still is stored once the writer
+     *       reaches it, as it cannot be taken back from the mailbox.
+     */
+    private CycleJournal.Entry submit(Mutation mutation)
+            throws IOException, GeneralSecurityException {
+        startWriter();
+        mailbox.add(mutation);
+
+        try {
+            return mutation.result.get(SUBMIT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while storing a change.", e);
+        } catch (TimeoutException e) {
+            throw new IOException("Timed out while storing a change.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof GeneralSecurityException) {
+                throw (GeneralSecurityException) e.getCause();
+            }
+            throw e.getCause() instanceof IOException
+                    ? (IOException) e.getCause() : new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * Projects changes onto the spreadsheet, logging
+     * any failure instead of throwing it.
+     */
+    private void project() {
+        flushQueued.set(false);
+        try {
+            flush();
+        } catch (IOException | GeneralSecurityException e) {
+            LoggerFactory.getLogger(this.getClass()).error(
+                    "The " + getSection() + " cycles spreadsheet could not "
+                            + "be updated; retrying later.");
+        } catch (RuntimeException e) {
+            // an escaped exception would cancel the scheduled projections
+            LoggerFactory.getLogger(this.getClass()).error(
+                    "The " + getSection() + " cycles spreadsheet projection "
+                            + "failed unexpectedly; retrying later.", e);
+        }
+    }
+
+    /**
+     * Queues a projection right away if enough players have changed,
+     * instead of waiting for the next scheduled one.
+     */
+    private void checkFlushThreshold() {
+        if (projector != null && dirtyRows >= FLUSH_ROWS
+                && flushQueued.compareAndSet(false, true)) {
+            projector.execute(this::project);
+        }
+    }
+
+    /** Retrieves the directory holding the section's cycle files. */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /** Retrieves the connection to the cycles spreadsheet. */
+    private GoogleSheetsAPI getLink()
+            throws IOException, GeneralSecurityException {
+        return GoogleSheetsAPI.getLink(cyclesSheetID());
+    }
+
+    /**
+     * Loads the section's events, folding them into the players' stats.
+     *
+     * Note: If the event log is empty, it is started from the stats
+     *       currently within the spreadsheet.
+     */
+    private synchronized void ensureLoaded()
+            throws IOException, GeneralSecurityException {
+        if (loaded) {
+            return;
+        }
+
+        if (events == null) {
+            events = new EventLog(directory);
+        }
+        if (journal == null) {
+            journal = new CycleJournal(directory);
+        }
+        paused = Files.exists(directory.resolve(PAUSE_FILE));
+
+        if (events.getLastSequence() == 0) {
+            // the journal's reports do not belong to the new log
+            journal.clear();
+
+            SectionIndex<PlayerStats> data = getLink().readSection(
+                    null, CYCLES_TAB, PlayerStats.SCHEMA);
+
+            List<CycleEvent> baseline = new ArrayList<>(data.size());
+            for (int i = 0; i < data.size(); i++) {
+                PlayerStats stats = data.getValueAt(i);
+                baseline.add(new CycleEvent(CycleEvent.BASELINE,
+                        data.getLongIDAt(i),
+                        stats.getName(), stats.getNickname(),
+                        stats.getSetWins(), stats.getSetLosses(),
+                        stats.getGamesWon(), stats.getGamesLost()));
+            }
+            append(baseline);
+
+            for (int i = 0; i < data.size(); i++) {
+                Standing standing = standings.get(data.getIDAt(i));
+                standing.position = data.getRowAt(i);
+                standing.projectedVersion = standing.version;
+            }
+            dirtyRows = 0;
+            saveCheckpoint(events.getLastSequence(), checkpointPositions());
+        } else {
+            replay();
+        }
+
+        journal.verify(events.getLastSequence());
+        journal.forgetBefore(cycleStart);
+        topTen = Collections.unmodifiableList(live.getTopTen());
+        loaded = true;
+    }
+
+    /**
+     * Folds every stored event into the players' stats, marking those
+     * the spreadsheet already holds as projected.
+     *
+     * Note: If the checkpoint is missing or does not match the log,
+     *       the whole spreadsheet tab is rewritten on the next projection.
+     */
+    private void replay() throws IOException {
+        Map<Long, Integer> positions = new HashMap<>();
+        long watermark = loadCheckpoint(positions);
+
+        AtomicBoolean reachedWatermark = new AtomicBoolean(watermark == 0);
+        AtomicBoolean resetSince = new AtomicBoolean(false);
+        events.readAll((sequence, payload) -> {
+            CycleEvent event = CycleEvent.decode(payload);
+            apply(event);
+
+            if (sequence == watermark) {
+                for (int i = 0; i < standings.size(); i++) {
+                    Standing standing = standings.getValueAt(i);
+                    standing.projectedVersion = standing.version;
+                }
+                dirtyRows = 0;
+                reachedWatermark.set(true);
+            } else if (sequence > watermark
+                    && event.getType() == CycleEvent.RESET) {
+                resetSince.set(true);
+            }
+
+            if (event.getType() == CycleEvent.RESET) {
+                cycleStart = sequence;
+            }
+        });
+
+        if (watermark == -1 || !reachedWatermark.get()) {
+            needsRebuild = true;
+            return;
+        } else if (resetSince.get()) {
+            // the new cycle's tab has none of the old rows
+            return;
+        }
+
+        for (int i = 0; i < standings.size(); i++) {
+            Standing standing = standings.getValueAt(i);
+            Integer position = positions.get(standings.getLongIDAt(i));
+            if (position != null) {
+                standing.position = position;
+            } else if (standing.projectedVersion != 0) {
+                needsRebuild = true;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Loads the checkpoint of what the spreadsheet holds.
+     * @param positions the map to fill with each projected player's
+     *                  numbered spreadsheet row, by Discord ID.
+     * @return the sequence number of the last event the spreadsheet holds.
+     *         -1 if there is no checkpoint.
+     */
+    private long loadCheckpoint(Map<Long, Integer> positions) {
+        Path file = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(file)) {
+            return -1;
+        }
+
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file)))) {
+            long watermark = in.readLong();
+            int numPositions = in.readInt();
+            for (int i = 0; i < numPositions; i++) {
+                positions.put(in.readLong(), in.readInt());
+            }
+
+            return watermark;
+        } catch (IOException e) {
+            LoggerFactory.getLogger(this.getClass()).warn(
+                    "The " + getSection() + " projection checkpoint "
+                            + "could not be read.");
+            positions.clear();
+            return -1;
+        }
+    }
+
+    /**
+     * Collects the numbered spreadsheet row of each projected player.
+     * @return said rows, by Discord ID.
+     */
+    private Map<Long, Integer> checkpointPositions() {
+        Map<Long, Integer> positions = new HashMap<>();
+        for (int i = 0; i < standings.size(); i++) {
+            int position = standings.getValueAt(i).position;
+            if (position != -1) {
+                positions.put(standings.getLongIDAt(i), position);
+            }
+        }
+
+        return positions;
+    }
+
+    /**
+     * Saves a checkpoint of what the spreadsheet holds, replacing
+     * the previous one in a single step.
+     * @param watermark the sequence number of the last event projected.
+     * @param positions each projected player's numbered spreadsheet
+     *                  row, by Discord ID.
+     */
+    private void saveCheckpoint(long watermark, Map<Long, Integer> positions)
+            throws IOException {
+        Path file = directory.resolve(CHECKPOINT_FILE);
+        Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+
+        try (FileOutputStream fileOut = new FileOutputStream(temp.toFile());
+             DataOutputStream out = new DataOutputStream(
+                     new BufferedOutputStream(fileOut))) {
+            out.writeLong(watermark);
+            out.writeInt(positions.size());
+            for (Map.Entry<Long, Integer> position : positions.entrySet()) {
+                out.writeLong(position.getKey());
+                out.writeInt(position.getValue());
+            }
+
+            out.flush();
+            fileOut.getFD().sync();
+        }
+
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Folds an event into the players' stats.
+     * @param event the event to fold.
+     */
+    private void apply(CycleEvent event) {
+        if (event.getType() == CycleEvent.RESET) {
+            lastReset = event.getPlayerID();
+            standings = new SectionIndex<>(standings.size());
+            players.clear();
+            live.clear();
+            generation++;
+            dirtyRows = 0;
+            return;
+        }
+
+        Standing standing = standings.get(event.getPlayerID());
+        if (standing == null) {
+            standing = new Standing();
+            standing.position = -1;
+            standings.put(event.getPlayerID(), -1, standing);
+            players.add(event.getPlayerID());
+        }
+
+        if (event.getType() == CycleEvent.BASELINE) {
+            standing.setWins = event.getSetWins();
+            standing.setLosses = event.getSetLosses();
+            standing.gameWins = event.getGameWins();
+            standing.gameLosses = event.getGameLosses();
+        } else {
+            standing.setWins += event.getSetWins();
+            standing.setLosses += event.getSetLosses();
+            standing.gameWins += event.getGameWins();
+            standing.gameLosses += event.getGameLosses();
+        }
+
+        if (!event.getName().isEmpty()) {
+            standing.name = event.getName();
+            standing.nickname = event.getNickname();
+        }
+        live.update(event.getPlayerID(), standing.name,
+                standing.setWins, standing.setLosses,
+                standing.gameWins, standing.gameLosses);
+
+        if (standing.version == standing.projectedVersion) {
+            dirtyRows++;
+        }
+        standing.version++;
+    }
+
+    /**
+     * Stores events in the event log and folds them into
+     * the players' stats.
+     * @param newEvents the events to store.
+     */
+    private void append(List<CycleEvent> newEvents) throws IOException {
+        List<ByteBuffer> payloads = new ArrayList<>(newEvents.size());
+        for (CycleEvent event : newEvents) {
+            payloads.add(event.encode());
+        }
+        long sequence = events.append(payloads) - newEvents.size();
+
+        for (CycleEvent event : newEvents) {
+            sequence++;
+            if (event.getType() == CycleEvent.RESET) {
+                cycleStart = sequence;
+                journal.forgetBefore(cycleStart);
+            }
+            apply(event);
+        }
+    }
+
+    /**
+     * Records changes to players' stats.
+     * @param newEvents the changes to record.
+     *
+     * Note: The changes are safely on disk once this returns, and reach
+     *       the spreadsheet within the next projection. Changes to the
+     *       same player are merged into one row update.
+     */
+    public void record(List<CycleEvent> newEvents)
+            throws IOException, GeneralSecurityException {
+        submit(new Mutation(null, newEvents, 0, null, false));
+    }
+
+    /**
+     * Records the changes of a reported command, journaling them
+     * so they can be undone or redone later.
+     * @param command the reported command, as it was typed.
+     * @param newEvents the changes to record.
+     * @return the journaled report.
+     *         null if there were no changes.
+     *
+     * Note: The report is journaled before its changes are stored,
+     *       and the journal drops it on the next start if the
+     *       changes never were.
+     */
+    public CycleJournal.Entry record(String command, List<CycleEvent> newEvents)
+            throws IOException, GeneralSecurityException {
+        return submit(new Mutation(command, newEvents, 0, null, false));
+    }
+
+    /**
+     * Undoes or redoes a recent report.
+     * @param sequence the journal sequence number of the report.
+     *                 0 for the most recent one which can be.
+     * @param undo True to undo the report.
+     *             False to redo it.
+     * @return the report.
+     *         null if there is no such recent report within this cycle,
+     *         or if it already is undone (or redone).
+     *
+     * Note: Only the report's inverse (or original) changes are
+     *       recorded, so every affected row reaches the spreadsheet
+     *       within one batched projection.
+     */
+    public CycleJournal.Entry toggle(long sequence, boolean undo)
+            throws IOException, GeneralSecurityException {
+        return submit(new Mutation(null, null, sequence, undo, false));
+    }
+
+    /**
+     * Checks whether a player has stats within the current cycle or not.
+     * @param id the player's Discord ID.
+     *
+     * Note: Read without waiting for the writer thread, so changes
+     *       still within the mailbox are not seen yet.
+     */
+    public boolean contains(String id)
+            throws IOException, GeneralSecurityException {
+        if (!loaded) {
+            ensureLoaded();
+        }
+
+        return players.contains(Long.parseLong(id));
+    }
+
+    /**
+     * Retrieves the provisional Top 10 of the current cycle.
+     * @return the placed players, from the highest placing.
+     *
+     * Note: Read without waiting for the writer thread, as of the
+     *       last stored changes.
+     */
+    public List<LiveRanking.Placement> getTopTen()
+            throws IOException, GeneralSecurityException {
+        if (!loaded) {
+            ensureLoaded();
+        }
+
+        return topTen;
+    }
+
+    /**
+     * Closes the current cycle for a cycle change, projecting every
+     * change stored within it and then starting a new cycle, with
+     * projections paused until the new cycle's tab exists.
+     * @param cycleChange the start time of the cycle change.
+     *
+     * Note: Reports made after this are recorded within the new cycle,
+     *       and reach the spreadsheet once projections resume. Closing
+     *       again for the same cycle change starts no other cycle.
+     */
+    public void closeCycle(long cycleChange)
+            throws IOException, GeneralSecurityException {
+        submit(new Mutation(null, Collections.singletonList(
+                CycleEvent.reset(cycleChange)), 0, null, true));
+    }
+
+    /**
+     * Resumes projections once a cycle change has created
+     * the new cycle's tab.
+     */
+    public void resumeProjection() throws IOException {
+        synchronized (projectLock) {
+            Files.deleteIfExists(directory.resolve(PAUSE_FILE));
+            paused = false;
+        }
+
+        if (projector != null && flushQueued.compareAndSet(false, true)) {
+            projector.execute(this::project);
+        }
+    }
+
+    /**
+     * Rewrites the whole tab of the spreadsheet from the players' stats.
+     */
+    public synchronized void rebuild()
+            throws IOException, GeneralSecurityException {
+        ensureLoaded();
+        needsRebuild = true;
+    }
+
+    /**
+     * Projects every unprojected change onto the spreadsheet,
+     * in at most one update and one append.
+     *
+     * Note: Nothing is projected while projections are paused.
+     */
+    public void flush() throws IOException, GeneralSecurityException {
+        flush(false);
+    }
+
+    /**
+     * Projects every unprojected change onto the spreadsheet,
+     * in at most one update and one append.
+     * @param force True to project even while projections are paused.
+     *              False otherwise.
+     */
+    private void flush(boolean force)
+            throws IOException, GeneralSecurityException {
+        synchronized (projectLock) {
+            ensureLoaded();
+            if (paused && !force) {
+                return;
+            }
+            GoogleSheetsAPI link = getLink();
+
+            boolean rebuilding;
+            long startGeneration;
+            long watermark;
+            List<Standing> changed = new ArrayList<>();
+            List<Long> versions = new ArrayList<>();
+            List<ValueRange> updatedRows = new ArrayList<>();
+            List<Standing> added = new ArrayList<>();
+            List<List<Object>> newRows = new ArrayList<>();
+
+            synchronized (this) {
+                rebuilding = needsRebuild;
+                startGeneration = generation;
+                watermark = events.getLastSequence();
+
+                for (int i = 0; i < standings.size(); i++) {
+                    Standing standing = standings.getValueAt(i);
+                    if (!rebuilding && standing.version == standing.projectedVersion) {
+                        continue;
+                    }
+
+                    changed.add(standing);
+                    versions.add(standing.version);
+                    if (!rebuilding && standing.position != -1) {
+                        String updateRange = link.buildRange(CYCLES_TAB,
+                                CYCLES_START_COLUMN, standing.position,
+                                CYCLES_END_COLUMN, standing.position);
+                        updatedRows.add(link.buildRow(standing.toRow())
+                                .setRange(updateRange));
+                    } else {
+                        List<Object> row = standing.toRow();
+                        row.add(0, standings.getIDAt(i));
+
+                        added.add(standing);
+                        newRows.add(row);
+                    }
+                }
+            }
+
+            if (changed.isEmpty() && !rebuilding) {
+                return;
+            }
+
+            int firstRow;
+            if (rebuilding) {
+                link.clearRange(String.format("'%s'!A2:%s",
+                        CYCLES_TAB, CYCLES_END_COLUMN));
+                if (!newRows.isEmpty()) {
+                    link.updateRange(link.buildRange(CYCLES_TAB,
+                            "A", 2, CYCLES_END_COLUMN, newRows.size() + 1),
+                            link.buildTable(newRows));
+                }
+                firstRow = 2;
+            } else {
+                link.updateRanges(updatedRows);
+                firstRow = newRows.isEmpty()
+                        ? -1 : link.appendRow(CYCLES_TAB, link.buildTable(newRows));
+            }
+
+            Map<Long, Integer> positions;
+            synchronized (this) {
+                if (generation != startGeneration) {
+                    // a new cycle started mid-projection; its rows are all new
+                    return;
+                }
+
+                for (int i = 0; i < changed.size(); i++) {
+                    Standing standing = changed.get(i);
+                    boolean wasDirty = standing.version != standing.projectedVersion;
+                    standing.projectedVersion = versions.get(i);
+                    if (wasDirty && standing.version == standing.projectedVersion) {
+                        dirtyRows--;
+                    }
+                }
+                for (int i = 0; i < added.size(); i++) {
+                    added.get(i).position = firstRow == -1 ? -1 : firstRow + i;
+                }
+
+                needsRebuild = (needsRebuild && !rebuilding)
+                        || (!added.isEmpty() && firstRow == -1);
+                if (needsRebuild) {
+                    return;
+                }
+                positions = checkpointPositions();
+            }
+
+            saveCheckpoint(watermark, positions);
+            synchronized (this) {
+                if (watermark >= cycleStart && cycleStart > compactedTo) {
+                    compact();
+                }
+            }
+        }
+    }
+
+    /**
+     * Deletes the stored events and journal records from before the
+     * current cycle, as nothing within them is projected or undone.
+     *
+     * Note: Only done once the projection checkpoint is past the cycle's
+     *       start, so the checkpoint's event is never deleted.
+     */
+    private void compact() {
+        try {
+            events.deleteBefore(cycleStart);
+            journal.compact();
+            compactedTo = cycleStart;
+        } catch (IOException e) {
+            LoggerFactory.getLogger(this.getClass()).warn(
+                    "The " + getSection() + " cycle log could not be compacted.");
+        }
+    }
+}
@@ -0,0 +1,484 @@
+package bot.Engine.Cycles;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author  Wil Aquino
+ * Date:    August 5, 2022
+ * Project: Libra
+ * Module:  CycleRanking.java
+ * Purpose: Ranks the players of a cycle and calculates their
+ *          leaderboard points in memory.
+ */
+public class CycleRanking {
+
+    /** Max score per category. */
+    public static final int MAX_CATEGORY_POINTS = 10;
+
+    /** Number of score categories to calculate. */
+    public static final int NUM_TOTAL_SCORES = 5;
+
+    /** Number of places to reward at the top of the leaderboard. */
+    public static final int TOP_PLACES = 10;
+
+    /** The number of players being ranked. */
+    private int size;
+
+    /** The Discord IDs of the players. */
+    private String[] ids;
+
+    /** The formal names of the players. */
+    private String[] names;
+
+    /** The nicknames of the players. */
+    private String[] nicknames;
+
+    /** The players' amounts of won sets. */
+    private int[] setWins;
+
+    /** The players' amounts of lost sets. */
+    private int[] setLosses;
+
+    /** The players' amounts of won games. */
+    private int[] gameWins;
+
+    /** The players' amounts of lost games. */
+    private int[] gameLosses;
+
+    /** The players' points per score category. */
+    private int[][] points;
+
+    /** The players' total points. */
+    private int[] totals;
+
+    /** The positions of the players, ordered by total points. */
+    private int[] order;
+
+    /**
+     * Constructs an empty ranking.
+     * @param capacity the expected number of players.
+     */
+    public CycleRanking(int capacity) {
+        int initial = Math.max(capacity, 1);
+
+        size = 0;
+        ids = new String[initial];
+        names = new String[initial];
+        nicknames = new String[initial];
+        setWins = new int[initial];
+        setLosses = new int[initial];
+        gameWins = new int[initial];
+        gameLosses = new int[initial];
+    }
+
+    /**
+     * Adds a player to the ranking.
+     * @param id the Discord ID of the player.
+     * @param name the formal name of the player.
+     * @param nickname the nickname of the player.
+     * @param wonSets the player's amount of won sets.
+     * @param lostSets the player's amount of lost sets.
+     * @param wonGames the player's amount of won games.
+     * @param lostGames the player's amount of lost games.
+     */
+    public void add(String id, String name, String nickname,
+                    int wonSets, int lostSets, int wonGames, int lostGames) {
+        if (size == ids.length) {
+            int capacity = size * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            names = Arrays.copyOf(names, capacity);
+            nicknames = Arrays.copyOf(nicknames, capacity);
+            setWins = Arrays.copyOf(setWins, capacity);
+            setLosses = Arrays.copyOf(setLosses, capacity);
+            gameWins = Arrays.copyOf(gameWins, capacity);
+            gameLosses = Arrays.copyOf(gameLosses, capacity);
+        }
+
+        ids[size] = id;
+        names[size] = name;
+        nicknames[size] = nickname;
+        setWins[size] = wonSets;
+        setLosses[size] = lostSets;
+        gameWins[size] = wonGames;
+        gameLosses[size] = lostGames;
+        size++;
+
+        order = null;
+    }
+
+    /**
+     * Writes the copied stats of the players, so the ranking can
+     * be rebuilt without copying the leaderboard again.
+     * @param out the stream to write to.
+     */
+    public void write(DataOutputStream out) throws IOException {
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeUTF(ids[i]);
+            out.writeUTF(names[i] == null ? "" : names[i]);
+            out.writeUTF(nicknames[i] == null ? "" : nicknames[i]);
+            out.writeInt(setWins[i]);
+            out.writeInt(setLosses[i]);
+            out.writeInt(gameWins[i]);
+            out.writeInt(gameLosses[i]);
+        }
+    }
+
+    /**
+     * Rebuilds a ranking from the stats written by write().
+     * @param in the stream to read from.
+     * @return the rebuilt ranking, before its points are calculated.
+     */
+    public static CycleRanking read(DataInputStream in) throws IOException {
+        int numPlayers = in.readInt();
+        if (numPlayers < 0) {
+            throw new IOException("The ranking is corrupted.");
+        }
+
+        CycleRanking ranking = new CycleRanking(Math.min(numPlayers, 1 << 16));
+        for (int i = 0; i < numPlayers; i++) {
+            ranking.add(in.readUTF(), in.readUTF(), in.readUTF(),
+                    in.readInt(), in.readInt(), in.readInt(), in.readInt());
+        }
+
+        return ranking;
+    }
+
+    /** Retrieves the number of players being ranked. */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Calculates a winrate.
+     * @param won the amount won.
+     * @param lost the amount lost.
+     * @return the winrate.
+     *         0.0 if nothing was played.
+     */
+    private static double winrate(int won, int lost) {
+        int played = won + lost;
+        if (played > 0) {
+            return (double) won / played;
+        }
+
+        return 0.0;
+    }
+
+    /**
+     * Retrieves the values of each score category, in the order the
+     * categories are scored (set wins, sets played, set winrate,
+     * game wins and game winrate).
+     */
+    private double[][] getScoreColumns() {
+        double[][] columns = new double[NUM_TOTAL_SCORES][size];
+        for (int i = 0; i < size; i++) {
+            double[] scores = scoreValues(
+                    setWins[i], setLosses[i], gameWins[i], gameLosses[i]);
+            for (int c = 0; c < NUM_TOTAL_SCORES; c++) {
+                columns[c][i] = scores[c];
+            }
+        }
+
+        return columns;
+    }
+
+    /**
+     * Retrieves a player's value in each score category, in the order
+     * the categories are scored.
+     * @param wonSets the player's amount of won sets.
+     * @param lostSets the player's amount of lost sets.
+     * @param wonGames the player's amount of won games.
+     * @param lostGames the player's amount of lost games.
+     */
+    static double[] scoreValues(int wonSets, int lostSets,
+                                int wonGames, int lostGames) {
+        return new double[] {
+                wonSets,
+                wonSets + lostSets,
+                winrate(wonSets, lostSets),
+                wonGames,
+                winrate(wonGames, lostGames)};
+    }
+
+    /**
+     * Sorts positions by their values from highest to lowest, keeping
+     * tied positions in their given order.
+     * @param values the values of every position.
+     * @param positions the positions to sort.
+     * @return the sorted positions.
+     *
+     * Note: This is a least significant digit radix sort over the bits
+     *       of the values, so it runs in linear time.
+     */
+    static int[] sortDescending(double[] values, int[] positions) {
+        int n = positions.length;
+        int[] src = positions.clone();
+        int[] dst = new int[n];
+        long[] srcKeys = new long[n];
+        long[] dstKeys = new long[n];
+
+        for (int i = 0; i < n; i++) {
+            long bits = Double.doubleToLongBits(values[src[i]]);
+            long ascending = bits ^ ((bits >> 63) | Long.MIN_VALUE);
+            srcKeys[i] = ~ascending;
+        }
+
+        int[] counts = new int[257];
+        for (int shift = 0; shift < Long.SIZE; shift += 8) {
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < n; i++) {
+                counts[(int) ((srcKeys[i] >>> shift) & 0xFF) + 1]++;
+            }
+
+            boolean oneDigit = false;
+            for (int d = 1; d < counts.length; d++) {
+                if (counts[d] == n) {
+                    oneDigit = true;
+                    break;
+                }
+            }
+            if (oneDigit) {
+                continue;
+            }
+
+            for (int d = 0; d < 256; d++) {
+                counts[d + 1] += counts[d];
+            }
+            for (int i = 0; i < n; i++) {
+                int digit = (int) ((srcKeys[i] >>> shift) & 0xFF);
+                int pos = counts[digit]++;
+                dst[pos] = src[i];
+                dstKeys[pos] = srcKeys[i];
+            }
+
+            int[] tempPositions = src;
+            src = dst;
+            dst = tempPositions;
+
+            long[] tempKeys = srcKeys;
+            srcKeys = dstKeys;
+            dstKeys = tempKeys;
+        }
+
+        return src;
+    }
+
+    /**
+     * Awards points for a score category, walking down the players
+     * from the highest score. Tied players share points, each lower
+     * score is worth one less point and scores of zero are worth none.
+     * @param values the scores of every player.
+     * @param sorted the positions of the players, sorted by score.
+     * @return the points of every player.
+     */
+    static int[] awardPoints(double[] values, int[] sorted) {
+        int[] awarded = new int[values.length];
+        int pts = MAX_CATEGORY_POINTS;
+        double lastVal = -1.0;
+
+        for (int pos : sorted) {
+            double currVal = values[pos];
+            if (lastVal == -1.0) {
+                lastVal = currVal;
+            } else if (currVal == 0.0) {
+                pts = 0;
+            } else if (currVal < lastVal && pts > 0) {
+                lastVal = currVal;
+                pts--;
+            }
+
+            awarded[pos] = pts;
+        }
+
+        return awarded;
+    }
+
+    /**
+     * Calculates the points of every player and orders the players
+     * by their total points.
+     *
+     * Note: Each category is sorted starting from the previous
+     *       category's order, so ties fall the same way they would
+     *       when sorting the spreadsheet column by column.
+     */
+    public void calculate() {
+        double[][] columns = getScoreColumns();
+        points = new int[NUM_TOTAL_SCORES][];
+        totals = new int[size];
+
+        int[] sorted = new int[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = i;
+        }
+
+        for (int c = 0; c < NUM_TOTAL_SCORES; c++) {
+            sorted = sortDescending(columns[c], sorted);
+            points[c] = awardPoints(columns[c], sorted);
+            for (int i = 0; i < size; i++) {
+                totals[i] += points[c][i];
+            }
+        }
+
+        double[] totalColumn = new double[size];
+        for (int i = 0; i < size; i++) {
+            totalColumn[i] = totals[i];
+        }
+        order = sortDescending(totalColumn, sorted);
+    }
+
+    /** Calculates the ranking if it is out of date. */
+    private void ensureCalculated() {
+        if (order == null) {
+            calculate();
+        }
+    }
+
+    /**
+     * Retrieves the placings of the players, in order of total points.
+     * @return the placing of each ranked player.
+     *         -1 for players outside of the top places.
+     */
+    public int[] getPlacings() {
+        ensureCalculated();
+
+        int[] sortedTotals = new int[size];
+        for (int i = 0; i < size; i++) {
+            sortedTotals[i] = totals[order[i]];
+        }
+
+        return placeTotals(sortedTotals);
+    }
+
+    /**
+     * Places total points within the top places. Tied totals share
+     * a placing and the placing after a tie skips the tied places.
+     * @param sortedTotals the total points, from highest to lowest.
+     * @return the placing of each total.
+     *         -1 for totals outside of the top places.
+     */
+    static int[] placeTotals(int[] sortedTotals) {
+        int[] placings = new int[sortedTotals.length];
+        int placing, offset;
+        placing = offset = 1;
+        int lastScore = -1;
+
+        for (int i = 0; i < sortedTotals.length; i++) {
+            int currScore = sortedTotals[i];
+            placings[i] = -1;
+
+            if (lastScore == -1) {
+                lastScore = currScore;
+                placings[i] = placing;
+            } else if (currScore == lastScore) {
+                offset++;
+                placings[i] = placing;
+            } else if (placing + offset <= TOP_PLACES) {
+                lastScore = currScore;
+                placing += offset;
+                offset = 1;
+
+                placings[i] = placing;
+            }
+        }
+
+        return placings;
+    }
+
+    /**
+     * Retrieves the Discord ID of a player.
+     * @param rank the player's rank, by total points.
+     */
+    public String getID(int rank) {
+        ensureCalculated();
+        return ids[order[rank]];
+    }
+
+    /**
+     * Retrieves the formal name of a player.
+     * @param rank the player's rank, by total points.
+     */
+    public String getName(int rank) {
+        ensureCalculated();
+        return names[order[rank]];
+    }
+
+    /**
+     * Retrieves the amount of won sets of a player.
+     * @param rank the player's rank, by total points.
+     */
+    public int getSetWins(int rank) {
+        ensureCalculated();
+        return setWins[order[rank]];
+    }
+
+    /**
+     * Retrieves the amount of lost sets of a player.
+     * @param rank the player's rank, by total points.
+     */
+    public int getSetLosses(int rank) {
+        ensureCalculated();
+        return setLosses[order[rank]];
+    }
+
+    /**
+     * Retrieves the amount of won games of a player.
+     * @param rank the player's rank, by total points.
+     */
+    public int getGameWins(int rank) {
+        ensureCalculated();
+        return gameWins[order[rank]];
+    }
+
+    /**
+     * Retrieves the amount of lost games of a player.
+     * @param rank the player's rank, by total points.
+     */
+    public int getGameLosses(int rank) {
+        ensureCalculated();
+        return gameLosses[order[rank]];
+    }
+
+    /**
+     * Retrieves the total points of a player.
+     * @param rank the player's rank, by total points.
+     */
+    public int getTotal(int rank) {
+        ensureCalculated();
+        return totals[order[rank]];
+    }
+
+    /**
+     * Builds the rows of the points spreadsheet, ordered by total points.
+     * @return the rows, each consisting of the player's ID, names, stats
+     *         and points per score category.
+     */
+    public List<List<Object>> toTable() {
+        ensureCalculated();
+
+        List<List<Object>> table = new ArrayList<>(size);
+        for (int pos : order) {
+            int setsPlayed = setWins[pos] + setLosses[pos];
+            int gamesPlayed = gameWins[pos] + gameLosses[pos];
+
+            List<Object> row = new ArrayList<>(11 + NUM_TOTAL_SCORES);
+            row.addAll(Arrays.asList(ids[pos], names[pos], nicknames[pos],
+                    setWins[pos], setLosses[pos], setsPlayed,
+                    winrate(setWins[pos], setLosses[pos]),
+                    gameWins[pos], gameLosses[pos], gamesPlayed,
+                    winrate(gameWins[pos], gameLosses[pos])));
+            for (int c = 0; c < NUM_TOTAL_SCORES; c++) {
+                row.add(points[c][pos]);
+            }
+
+            table.add(row);
+        }
+
+        return table;
+    }
+}
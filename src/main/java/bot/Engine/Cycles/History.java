@@ -0,0 +1,94 @@
+package bot.Engine.Cycles;
+
+import bot.Engine.Section;
+import bot.Engine.Templates.Command;
+
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.events.interaction.SlashCommandEvent;
+import net.dv8tion.jda.api.interactions.commands.OptionMapping;
+
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * @author  Wil Aquino
+ * Date:    August 21, 2022
+ * Project: Libra
+ * Module:  History.java
+ * Purpose: Shows a player's stats over a section's
+ *          archived cycles.
+ */
+public class History extends Section implements Command {
+
+    /** The number of cycles shown if none is given. */
+    private static final int DEFAULT_CYCLES = 5;
+
+    /** The largest number of cycles that can be shown at once. */
+    private static final int MAX_CYCLES = 25;
+
+    /**
+     * Constructs the history attributes.
+     * @param abbreviation the abbreviation of the section.
+     */
+    public History(String abbreviation) {
+        super(abbreviation);
+    }
+
+    /**
+     * Runs the cycle history command.
+     * @param sc the command to analyze.
+     *
+     * Note: The stats are read from the archives written at each
+     *       cycle change, so no spreadsheet is read. The reply is
+     *       still deferred, as each archive is read from disk.
+     */
+    @Override
+    public void runCmd(SlashCommandEvent sc) {
+        sc.deferReply(false).queue();
+
+        List<OptionMapping> args = sc.getOptions();
+        User player = args.get(0).getAsUser();
+
+        int numCycles = DEFAULT_CYCLES;
+        if (args.size() > 1) {
+            numCycles = (int) Math.max(1,
+                    Math.min(MAX_CYCLES, args.get(1).getAsLong()));
+        }
+
+        try {
+            List<CycleArchive.PlayerCycle> cycles = CycleArchive.history(
+                    CycleLedger.getInstance(getPrefix()).getDirectory()
+                            .resolve(PointsCalculator.ARCHIVE_DIRECTORY),
+                    player.getIdLong(), numCycles);
+
+            StringBuilder history = new StringBuilder();
+            SimpleDateFormat date = new SimpleDateFormat("MMM d, yyyy");
+            for (CycleArchive.PlayerCycle cycle : cycles) {
+                history.append(String.format(
+                        "%s - Sets %s-%s, Games %s-%s, %s points",
+                        date.format(new Date(cycle.getCycleEnd())),
+                        cycle.getSetWins(), cycle.getSetLosses(),
+                        cycle.getGameWins(), cycle.getGameLosses(),
+                        cycle.getPoints()));
+                if (!cycle.isEligible()) {
+                    history.append(" (not eligible)");
+                } else if (cycle.getPlacing() != -1) {
+                    history.append(String.format(" (Top 10: %s)", cycle.getPlacing()));
+                }
+                history.append("\n");
+            }
+            if (cycles.isEmpty()) {
+                history.append("No archived cycles were found.\n");
+            }
+
+            editMessage(sc, String.format("%s history of %s over the last %s cycles:\n```",
+                    getSection(), player.getName(), numCycles)
+                    + history + "```");
+        } catch (IOException e) {
+            editMessage(sc, "The cycle history could not be read.");
+            log("The " + getSection() + " cycle archives could not load.", true);
+        }
+    }
+}
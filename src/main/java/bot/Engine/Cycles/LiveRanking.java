@@ -0,0 +1,264 @@
+package bot.Engine.Cycles;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * @author  Wil Aquino
+ * Date:    August 20, 2022
+ * Project: Libra
+ * Module:  LiveRanking.java
+ * Purpose: Keeps a provisional Top 10 of a cycle up to date
+ *          as players' stats change.
+ */
+public class LiveRanking {
+
+    /** The minimum number of sets to be eligible for points. */
+    private final int minimumSets;
+
+    /** The value of each score category of the eligible players, by Discord ID. */
+    private final Map<Long, double[]> scores;
+
+    /** The formal names of the eligible players, by Discord ID. */
+    private final Map<Long, String> names;
+
+    /** The eligible players holding each value, per score category. */
+    private final List<TreeMap<Double, Set<Long>>> categories;
+
+    /**
+     * A placing within the provisional Top 10.
+     */
+    public static class Placement {
+
+        /** The Discord ID of the player. */
+        private final long id;
+
+        /** The formal name of the player. */
+        private final String name;
+
+        /** The player's total points. */
+        private final int total;
+
+        /** The player's placing. */
+        private final int placing;
+
+        /**
+         * Constructs a placing.
+         * @param playerID the Discord ID of the player.
+         * @param playerName the formal name of the player.
+         * @param points the player's total points.
+         * @param place the player's placing.
+         */
+        private Placement(long playerID, String playerName,
+                          int points, int place) {
+            id = playerID;
+            name = playerName;
+            total = points;
+            placing = place;
+        }
+
+        /** Retrieves the Discord ID of the player. */
+        public String getID() {
+            return Long.toString(id);
+        }
+
+        /** Retrieves the formal name of the player. */
+        public String getName() {
+            return name;
+        }
+
+        /** Retrieves the player's total points. */
+        public int getTotal() {
+            return total;
+        }
+
+        /** Retrieves the player's placing. */
+        public int getPlacing() {
+            return placing;
+        }
+    }
+
+    /**
+     * Constructs an empty ranking.
+     * @param minimumEligibleSets the minimum number of sets to be
+     *                            eligible for points.
+     */
+    public LiveRanking(int minimumEligibleSets) {
+        minimumSets = minimumEligibleSets;
+        scores = new HashMap<>();
+        names = new HashMap<>();
+
+        categories = new ArrayList<>(CycleRanking.NUM_TOTAL_SCORES);
+        for (int c = 0; c < CycleRanking.NUM_TOTAL_SCORES; c++) {
+            categories.add(new TreeMap<>());
+        }
+    }
+
+    /**
+     * Updates a player's stats, adding or removing the player
+     * as they become eligible or ineligible for points.
+     * @param id the Discord ID of the player.
+     * @param name the formal name of the player.
+     * @param wonSets the player's amount of won sets.
+     * @param lostSets the player's amount of lost sets.
+     * @param wonGames the player's amount of won games.
+     * @param lostGames the player's amount of lost games.
+     *
+     * Note: Runs in O(log n) time.
+     */
+    public void update(long id, String name, int wonSets, int lostSets,
+                       int wonGames, int lostGames) {
+        remove(id);
+        if (wonSets + lostSets < minimumSets) {
+            return;
+        }
+
+        double[] values = CycleRanking.scoreValues(
+                wonSets, lostSets, wonGames, lostGames);
+        scores.put(id, values);
+        names.put(id, name);
+        for (int c = 0; c < values.length; c++) {
+            categories.get(c).computeIfAbsent(values[c], v -> new HashSet<>()).add(id);
+        }
+    }
+
+    /**
+     * Removes a player from the ranking.
+     * @param id the Discord ID of the player.
+     */
+    public void remove(long id) {
+        double[] values = scores.remove(id);
+        if (values == null) {
+            return;
+        }
+
+        names.remove(id);
+        for (int c = 0; c < values.length; c++) {
+            Set<Long> holders = categories.get(c).get(values[c]);
+            holders.remove(id);
+            if (holders.isEmpty()) {
+                categories.get(c).remove(values[c]);
+            }
+        }
+    }
+
+    /** Removes every player from the ranking. */
+    public void clear() {
+        scores.clear();
+        names.clear();
+        for (TreeMap<Double, Set<Long>> category : categories) {
+            category.clear();
+        }
+    }
+
+    /**
+     * Retrieves the points of a value within a score category.
+     * @param c the score category.
+     * @param value the value to score.
+     * @return said points.
+     *
+     * Note: Follows CycleRanking.awardPoints, where each lower value is
+     *       worth one less point, so only the highest values are walked.
+     */
+    private int points(int c, double value) {
+        if (value == 0.0) {
+            return 0;
+        }
+
+        int pts = CycleRanking.MAX_CATEGORY_POINTS;
+        for (double higher : categories.get(c).descendingKeySet()) {
+            if (higher == value) {
+                return pts;
+            }
+
+            pts--;
+            if (pts == 0) {
+                break;
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * Calculates a player's total points.
+     * @param id the Discord ID of the player.
+     * @return said points.
+     *         0 if the player is not eligible.
+     */
+    public int getTotal(long id) {
+        double[] values = scores.get(id);
+        if (values == null) {
+            return 0;
+        }
+
+        int total = 0;
+        for (int c = 0; c < values.length; c++) {
+            total += points(c, values[c]);
+        }
+
+        return total;
+    }
+
+    /**
+     * Retrieves the provisional Top 10, with the same tied placings
+     * as the cycle change's Top 10.
+     * @return the placed players, from the highest placing.
+     *
+     * Note: Only players holding one of the highest values of a
+     *       category can score points, so only they are totalled.
+     */
+    public List<Placement> getTopTen() {
+        Set<Long> candidates = new LinkedHashSet<>();
+        for (TreeMap<Double, Set<Long>> category : categories) {
+            int walked = 0;
+            NavigableMap<Double, Set<Long>> descending = category.descendingMap();
+            for (Map.Entry<Double, Set<Long>> holders : descending.entrySet()) {
+                if (walked++ == CycleRanking.MAX_CATEGORY_POINTS
+                        || holders.getKey() == 0.0) {
+                    break;
+                }
+                candidates.addAll(holders.getValue());
+            }
+        }
+
+        List<long[]> totals = new ArrayList<>(candidates.size());
+        for (long id : candidates) {
+            totals.add(new long[] {id, getTotal(id)});
+        }
+        totals.sort((a, b) -> Long.compare(b[1], a[1]));
+
+        // every other eligible player is tied at the bottom with no points
+        boolean hasScoreless = scores.size() > candidates.size();
+        int[] sortedTotals = new int[totals.size() + (hasScoreless ? 1 : 0)];
+        for (int i = 0; i < totals.size(); i++) {
+            sortedTotals[i] = (int) totals.get(i)[1];
+        }
+        int[] placings = CycleRanking.placeTotals(sortedTotals);
+
+        List<Placement> topTen = new ArrayList<>();
+        for (int i = 0; i < totals.size() && placings[i] != -1; i++) {
+            long id = totals.get(i)[0];
+            topTen.add(new Placement(id, names.get(id),
+                    (int) totals.get(i)[1], placings[i]));
+        }
+
+        if (hasScoreless && placings[placings.length - 1] != -1) {
+            for (long id : scores.keySet()) {
+                if (!candidates.contains(id)) {
+                    topTen.add(new Placement(id, names.get(id),
+                            0, placings[placings.length - 1]));
+                }
+            }
+        }
+
+        return topTen;
+    }
+}
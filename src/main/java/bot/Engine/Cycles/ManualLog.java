@@ -2,22 +2,20 @@ package bot.Engine.Cycles;
 
 import bot.Engine.Section;
 import bot.Engine.Templates.Command;
-import bot.Tools.FileHandler;
-import bot.Tools.GoogleSheetsAPI;
 
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.events.interaction.SlashCommandEvent;
 import net.dv8tion.jda.api.interactions.commands.OptionMapping;
 
-import com.google.api.services.sheets.v4.model.ValueRange;
-
 import java.awt.Color;
 import java.util.List;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.TreeMap;
 import java.io.IOException;
 import java.security.GeneralSecurityException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * @author  Wil Aquino
@@ -28,6 +26,17 @@ import java.security.GeneralSecurityException;
  */
 public class ManualLog extends Section implements Command {
 
+    /**
+     * Threads recording reports once their players are found, so waiting
+     * on the cycle ledger never holds up Discord's callback threads.
+     */
+    static final ExecutorService reportExecutor =
+            Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "cycle-reports");
+                thread.setDaemon(true);
+                return thread;
+            });
+
     /**
      * Constructs the cycle log attributes.
      * @param abbreviation the abbreviation of the section.
@@ -46,11 +55,12 @@ public class ManualLog extends Section implements Command {
     }
 
     /**
-     * Saves a cycle command to an undo file.
+     * Describes a cycle command, as it is kept within the undo journal.
      * @param cmd the formal name of the command.
      * @param args the arguments of the command.
+     * @return said description.
      */
-    private void saveCycleCall(String cmd, List<OptionMapping> args) {
+    private String describeCycleCall(String cmd, List<OptionMapping> args) {
         List<OptionMapping> userArgs = args.subList(2, args.size());
         StringBuilder contents = new StringBuilder();
         int lastIndex = userArgs.size() - 1;
@@ -63,9 +73,7 @@ public class ManualLog extends Section implements Command {
         }
         contents.append(mentionableFor(userArgs.get(lastIndex)));
 
-        FileHandler save = new FileHandler(
-                "load" + getPrefix().toUpperCase() + ".txt");
-        save.writeContents(contents.toString());
+        return contents.toString();
     }
 
     /**
@@ -94,18 +102,6 @@ public class ManualLog extends Section implements Command {
         return (int) args.get(1).getAsLong();
     }
 
-    /**
-     * Checks if a set was won.
-     * @param won the amount of won games.
-     * @param played the total amount of games played.
-     * @return True if the set was won.
-     *         False if the set was lost.
-     */
-    public boolean cycleSetWon(int won, int played) {
-        double halfPlayed = (double) played / 2;
-        return won >= halfPlayed;
-    }
-
     /**
      * Sums the values of an array.
      * @param arr the array to find the sum of.
@@ -128,9 +124,11 @@ public class ManualLog extends Section implements Command {
      *                    (0 if an existing player, 1 if a new player).
      * @param errorsFound array of errors found for each player, if any
      *                    (0 if no errors occurred, 1 otherwise).
+     * @param entry the journaled report, if it was saved.
      */
     private void sendReport(SlashCommandEvent sc, List<OptionMapping> players,
-                            int[] playerTypes, int[] errorsFound) {
+                            int[] playerTypes, int[] errorsFound,
+                            CycleJournal.Entry entry) {
         EmbedBuilder eb = new EmbedBuilder();
         StringBuilder playerList = new StringBuilder();
 
@@ -166,117 +164,11 @@ public class ManualLog extends Section implements Command {
             eb.setColor(Color.RED);
             eb.addField("Status:", "INCOMPLETE", false);
         }
-
-        sendEmbed(sc, eb);
-    }
-
-    /**
-     * Updates a user's stats within a spreadsheet.
-     * @param cmd the formal name of the command.
-     * @param gamesPlayed the total games played.
-     * @param gameWins the total games won.
-     * @param user the player to update the stats of.
-     * @param link a connection to the spreadsheet.
-     * @param stats the stats of the player.
-     * @return 0 if the player could be found in the spreadsheet.
-     *         1 otherwise.
-     */
-    public int updateUser(String cmd, int gamesPlayed, int gameWins,
-                          Member user, GoogleSheetsAPI link,
-                          PlayerStats stats) {
-        try {
-            int gameLosses = gamesPlayed - gameWins;
-
-            int setWins = stats.getSetWins();
-            int setLosses = stats.getSetLosses();
-            int setsPlayed = setWins + setLosses;
-            double setWinrate = 0.0;
-            if (notSub(cmd) && gamesPlayed > 0) {
-                if (cycleSetWon(gameWins, gamesPlayed)) {
-                    setWins++;
-                } else {
-                    setLosses++;
-                }
-
-                setsPlayed++;
-            }
-            if (setsPlayed > 0) {
-                setWinrate = (double) setWins / setsPlayed;
-            }
-
-            gameWins += stats.getGamesWon();
-            gameLosses += stats.getGamesLost();
-            gamesPlayed = gameWins + gameLosses;
-            double gameWinrate = 0.0;
-            if (gamesPlayed > 0) {
-                gameWinrate =  (double) gameWins / gamesPlayed;
-            }
-
-            String updateRange = link.buildRange(CYCLES_TAB,
-                    CYCLES_START_COLUMN, stats.getSpreadsheetPosition(),
-                    CYCLES_END_COLUMN, stats.getSpreadsheetPosition());
-            ValueRange newRow = link.buildRow(Arrays.asList(
-                    user.getUser().getAsTag(), user.getEffectiveName(),
-                    setWins, setLosses, setsPlayed, setWinrate,
-                    gameWins, gameLosses, gamesPlayed, gameWinrate));
-            link.updateRange(updateRange, newRow);
-
-            return 0;
-        } catch (IOException e) {
-            log("Existing " + getPrefix().toUpperCase() + " cycle user error "
-                    + "occurred with " + user.getUser().getAsMention() + ".", true);
-            return 1;
+        if (entry != null) {
+            eb.setFooter("Entry #" + entry.getSequence());
         }
-    }
-
-    /**
-     * Adds a user's stats within a spreadsheet.
-     * @param cmd the formal name of the command.
-     * @param gamesPlayed the total games played.
-     * @param gameWins the total games won.
-     * @param user the player to update the stats of.
-     * @param link a connection to the spreadsheet.
-     * @return 0 if the player could be found in the spreadsheet.
-     *         1 otherwise.
-     *
-     * Note: Users will be added at the next EMPTY row in the spreadsheet.
-     */
-    public int addUser(String cmd, int gamesPlayed, int gameWins,
-                       Member user, GoogleSheetsAPI link) {
-        try {
-            int gameLosses = gamesPlayed - gameWins;
-            double gameWinrate = 0.0;
-            if (gamesPlayed > 0) {
-                gameWinrate =  (double) gameWins / gamesPlayed;
-            }
 
-            int setWins = 0;
-            int setLosses = 0;
-            int setsPlayed = 0;
-            double setWinrate = 0.0;
-            if (notSub(cmd) && gamesPlayed > 0) {
-                if (cycleSetWon(gameWins, gamesPlayed)) {
-                    setWins++;
-                } else {
-                    setLosses++;
-                }
-
-                setsPlayed = 1;
-                setWinrate = (double) setWins / setsPlayed;
-            }
-
-            ValueRange newRow = link.buildRow(Arrays.asList(
-                    user.getId(), user.getUser().getAsTag(), user.getEffectiveName(),
-                    setWins, setLosses, setsPlayed, setWinrate,
-                    gameWins, gameLosses, gamesPlayed, gameWinrate));
-            link.appendRow(CYCLES_TAB, newRow);
-
-            return 0;
-        } catch (IOException e) {
-            log("New " + getPrefix().toUpperCase() + " cycle user error "
-                    + "occurred with " + user.getUser().getAsMention() + ".", true);
-            return 1;
-        }
+        sendEmbed(sc, eb);
     }
 
     /**
@@ -291,30 +183,32 @@ public class ManualLog extends Section implements Command {
         List<OptionMapping> args = sc.getOptions();
 
         try {
-            GoogleSheetsAPI link = new GoogleSheetsAPI(cyclesSheetID());
-            TreeMap<Object, Object> data = link.readSection(sc, CYCLES_TAB);
+            CycleLedger ledger = CycleLedger.getInstance(getPrefix());
 
             List<OptionMapping> userArgs = extractUsers(sc);
             int numUsers = userArgs.size();
             int[] playerTypes = new int[numUsers];
             int[] errorsFound = new int[numUsers];
+
+            List<CycleEvent> events = new ArrayList<>(numUsers);
             for (int i = 0; i < numUsers; i++) {
                 Member user = userArgs.get(i).getAsMember();
-                if (data.containsKey(user.getId())) {
-                    PlayerStats stats = (PlayerStats) data.get(user.getId());
-                    errorsFound[i] = updateUser(
-                            cmd, getGamesPlayed(args), getGamesWon(args),
-                            user, link, stats);
-                    playerTypes[i] = 0;
-                } else {
-                    errorsFound[i] = addUser(
-                            cmd, getGamesPlayed(args), getGamesWon(args),
-                            user, link);
-                    playerTypes[i] = 1;
-                }
+                playerTypes[i] = ledger.contains(user.getId()) ? 0 : 1;
+                events.add(CycleEvent.report(!notSub(cmd), user.getIdLong(),
+                        user.getUser().getAsTag(), user.getEffectiveName(),
+                        getGamesPlayed(args), getGamesWon(args)));
             }
 
-            sendReport(sc, userArgs, playerTypes, errorsFound);
+            CycleJournal.Entry entry = null;
+            try {
+                entry = ledger.record(describeCycleCall(cmd, args), events);
+            } catch (IOException e) {
+                Arrays.fill(errorsFound, 1);
+                log("The " + getPrefix().toUpperCase() + " cycle report "
+                        + "could not be saved.", true);
+            }
+
+            sendReport(sc, userArgs, playerTypes, errorsFound, entry);
             log(userArgs.size() + " " + getPrefix().toUpperCase()
                     + " draft player(s) were manually processed.", false);
         } catch (IOException | GeneralSecurityException e) {
@@ -322,7 +216,5 @@ public class ManualLog extends Section implements Command {
             log("The " + getSection()
                     + " cycles spreadsheet could not load.", true);
         }
-
-        saveCycleCall(cmd, args);
     }
 }
@@ -1,11 +1,6 @@
 package bot.Engine.Cycles;
 
-import net.dv8tion.jda.api.events.interaction.GenericInteractionCreateEvent;
-
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import java.util.List;
+import bot.Tools.SheetSchema;
 
 /**
  * @author  Wil Aquino
@@ -37,32 +32,22 @@ public class PlayerStats {
     /** The amount of lost matches the player has attained. */
     private int gamesLost;
 
+    /** The columns of the cycle spreadsheet, decoded into player stats. */
+    public static final SheetSchema<PlayerStats> SCHEMA =
+            new SheetSchema<>(PlayerStats::new)
+                    .bindString("B", (stats, value) -> stats.name = value)
+                    .bindString("C", (stats, value) -> stats.nickname = value)
+                    .bindInt("D", (stats, value) -> stats.setWins = value)
+                    .bindInt("E", (stats, value) -> stats.setLosses = value)
+                    .bindInt("H", (stats, value) -> stats.gamesWon = value)
+                    .bindInt("I", (stats, value) -> stats.gamesLost = value);
+
     /**
-     * Construct the object by storing row data.
-     * @param interaction the user interaction calling this method.
+     * Construct the object with empty stats.
      * @param pos the row of the player within the cycle spreadsheet.
-     * @param row the row data.
      */
-    public PlayerStats(GenericInteractionCreateEvent interaction,
-                       int pos, List<Object> row) {
-        try {
-            numRow = pos;
-
-            name = row.get(0).toString();
-            nickname = row.get(1).toString();
-            if (row.size() > 2) {
-                setWins = Integer.parseInt(row.get(2).toString());
-                setLosses = Integer.parseInt(row.get(3).toString());
-                gamesWon = Integer.parseInt(row.get(6).toString());
-                gamesLost = Integer.parseInt(row.get(7).toString());
-            }
-        } catch (IndexOutOfBoundsException | NumberFormatException e) {
-            Logger logger = LoggerFactory.getLogger(this.getClass());
-            logger.error("Spreadsheet formatting problem detected.");
-            interaction.getHook().sendMessage(
-                    "***There seems to be a formatting problem within the "
-                            + "spreadsheet.*** Please fix it!").queue();
-        }
+    private PlayerStats(int pos) {
+        numRow = pos;
     }
 
     /**
@@ -3,17 +3,24 @@ package bot.Engine.Cycles;
 import bot.Engine.Section;
 import bot.Engine.Templates.Command;
 import bot.Tools.GoogleSheetsAPI;
+import bot.Tools.SheetColumns;
+import bot.Tools.SheetStream;
 
 import com.google.api.services.sheets.v4.model.ValueRange;
 import net.dv8tion.jda.api.events.interaction.SlashCommandEvent;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.security.GeneralSecurityException;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 /**
  * @author  Wil Aquino
@@ -25,15 +32,19 @@ import java.util.TreeMap;
  */
 public class PointsCalculator extends Section implements Command {
 
-    /** Max score per category. */
-    private final static int MAX_CATGEORY_POINTS = 10;
-
-    /** Number of score categories to calculate. */
-    private final static int NUM_TOTAL_SCORES = 5;
-
     /** Beginning lettered column of the score columns. */
     private final static char SCORE_COLUMNS_START = 'L';
 
+    /** Number of leaderboard rows downloaded at a time when copying. */
+    private final static int COPY_WINDOW_ROWS = 500;
+
+    /** Directory within the section's cycle directory holding its archives. */
+    final static String ARCHIVE_DIRECTORY = "archive";
+
+    /** The lock held during each section's cycle change, indexed by section prefix. */
+    private final static Map<String, ReentrantLock> changeLocks =
+            new ConcurrentHashMap<>();
+
     /**
      * Constructs the calculator's attributes.
      * @param abbreviation the abbreviation of the section.
@@ -42,14 +53,6 @@ public class PointsCalculator extends Section implements Command {
         super(abbreviation);
     }
 
-    /**
-     * Converts character-formatted column to its integer format.
-     * @param column the column to format.
-     */
-    private int columnToInt(String column) {
-        return column.charAt(0) - 'A';
-    }
-
     /**
      * Converts an integer-formatted column to its character format.
      * @param column the column to format.
@@ -59,19 +62,9 @@ public class PointsCalculator extends Section implements Command {
         return String.valueOf(c);
     }
 
-    /** Retrieves a list of the lettered points columns. */
-    private List<String> getPointsColumns() {
-        List<String> pointsColumns = new ArrayList<>(NUM_TOTAL_SCORES);
-        for (int i = 0; i < NUM_TOTAL_SCORES; i++) {
-            pointsColumns.add(intToColumn(SCORE_COLUMNS_START + i));
-        }
-
-        return pointsColumns;
-    }
-
     /**
      * Updates the public leaderboard with points for each player.
-     * @param sc the user's inputted commands.
+     * @param progress reports the progress of the cycle change.
      * @param scores the scores which were found during the
      *               points calculation.
      * @param tab the name of the spreadsheet tab to edit.
@@ -79,18 +72,16 @@ public class PointsCalculator extends Section implements Command {
      * @return True if leaderboard update ran without error.
      *         False otherwise.
      */
-    private boolean updateLeaderboardUnsuccessful(SlashCommandEvent sc,
+    private boolean updateLeaderboardUnsuccessful(Consumer<String> progress,
                                    TreeMap<Object, Integer> scores,
                                    String tab, GoogleSheetsAPI link) {
         try {
-            editMessage(sc, "Updating leaderboard...");
+            progress.accept("Updating leaderboard...");
 
-            List<List<Object>> table = link.getSheetValues(tab);
-            table.remove(0);
+            SheetColumns table = link.readColumns(tab, 2, -1, "A");
             List<Object> pointsPerPlayer = new ArrayList<>(table.size());
 
-            for (List<Object> row : table) {
-                Object playerID = row.get(0);
+            for (Object playerID : table.getColumn("A")) {
                 pointsPerPlayer.add(scores.getOrDefault(playerID, 0));
             }
 
@@ -103,7 +94,7 @@ public class PointsCalculator extends Section implements Command {
             link.sortByDescending(tab, String.valueOf(SCORE_COLUMNS_START), table.size());
             return false;
         } catch (IOException e) {
-            editMessage(sc, "An error occurred while updating the leaderboard.");
+            progress.accept("An error occurred while updating the leaderboard.");
             log("An error occurred while updating the public leaderboard.",
                     true);
         }
@@ -124,130 +115,78 @@ public class PointsCalculator extends Section implements Command {
     /**
      * Calculates the Top 10 players of the leaderboard.
      * @param sc the user's inputted command.
+     * @param progress reports the progress of the cycle change.
      * @param section the designated MIT section for this Top 10.
-     * @param size the amount of players eligible
-     * @param tab the name of the spreadsheet tab to edit.
-     * @param link a connection to the leaderboard spreadsheet.
+     * @param ranking the calculated ranking of the eligible players.
      * @return a map of final scores for all players who were eligible,
      *         for the Top 10.
-     *         null if an error occurred.
      */
     public TreeMap<Object, Integer> findTopTen(SlashCommandEvent sc,
-                                               String section, int size,
-                                               String tab, GoogleSheetsAPI link) {
-        StringBuilder topTen = new StringBuilder();
-        TreeMap<Object, Integer> finalScores = new TreeMap<>();
+                                               Consumer<String> progress,
+                                               String section,
+                                               CycleRanking ranking) {
+        progress.accept("Calculating Top 10...");
 
-        String totalColumn = intToColumn(SCORE_COLUMNS_START + NUM_TOTAL_SCORES);
-        int numTotalColumn = columnToInt(totalColumn);
-
-        try {
-            link.sortByDescending(tab, totalColumn, size);
-            editMessage(sc, "Calculating Top 10...");
-
-            int placing, offset;
-            placing = offset = 1;
-
-            int lastScore = -1;
-
-            List<List<Object>> table = link.getSheetValues(tab);
-            table.remove(0);
-
-            for (List<Object> row : table) {
-                Object id = row.get(0);
-                String playerTag = String.valueOf(row.get(1));
-                int currScore =
-                        Integer.parseInt(row.get(numTotalColumn).toString());
-
-                if (lastScore == -1) {
-                    lastScore = currScore;
-                    topTen.append(placement(playerTag, placing));
-                } else if (currScore == lastScore) {
-                    offset++;
-                    topTen.append(placement(playerTag, placing));
-                } else if (placing + offset <= 10) {
-                    lastScore = currScore;
-                    placing += offset;
-                    offset = 1;
-
-                    topTen.append(placement(playerTag, placing));
-                }
+        StringBuilder topTen = new StringBuilder();
 
-                finalScores.put(id, currScore);
+        int[] placings = ranking.getPlacings();
+        for (int i = 0; i < ranking.size(); i++) {
+            if (placings[i] != -1) {
+                topTen.append(placement(ranking.getName(i), placings[i]));
             }
-        } catch (IOException e) {
-            editMessage(sc, "An error occurred while calculating the Top 10 players.");
-            log("An error occurred with the Top 10 calculation.", true);
-            return null;
         }
 
         String output = "Top 10 for " + section + ":\n```"
                 + topTen + "```";
         sendResponse(sc, output, false);
+        return findScores(ranking);
+    }
+
+    /**
+     * Collects the final leaderboard scores of the eligible players.
+     * @param ranking the calculated ranking of the eligible players.
+     * @return a map of final scores, by Discord ID.
+     */
+    private TreeMap<Object, Integer> findScores(CycleRanking ranking) {
+        TreeMap<Object, Integer> finalScores = new TreeMap<>();
+        for (int i = 0; i < ranking.size(); i++) {
+            finalScores.put(ranking.getID(i), ranking.getTotal(i));
+        }
+
         return finalScores;
     }
 
     /**
-     * Calculates the final leaderboard scores.
-     * @param sc the user's inputted command.
-     * @param size the amount of players eligible
+     * Calculates the final leaderboard scores and writes them, along
+     * with the copied leaderboard, to the points spreadsheet.
+     * @param progress reports the progress of the cycle change.
+     * @param ranking the copied stats of the eligible players.
      * @param tab the name of the spreadsheet tab to edit.
-     * @param link a connection to the leaderboard spreadsheet.
+     * @param link a connection to the points spreadsheet.
      * @return True if the points calculation ran without error.
      *         False otherwise.
+     *
+     * Note: The points are calculated locally, so the spreadsheet
+     *       only receives the final, sorted values in a single write.
      */
-    public boolean calculatePointsUnsuccessful(SlashCommandEvent sc, int size,
-                                String tab, GoogleSheetsAPI link) {
-        List<String> scoreColumns = new ArrayList<>(
-                Arrays.asList("D", "F", "G", "H", "K"));
-        List<String> pointsColumns = getPointsColumns();
-        List<Object> pointsPerPlayer = new ArrayList<>(size);
-
+    public boolean calculatePointsUnsuccessful(Consumer<String> progress,
+                                               CycleRanking ranking,
+                                               String tab, GoogleSheetsAPI link) {
         try {
-            for (String column : pointsColumns) {
-                editMessage(sc, "Calculating points for column "
-                        + column + "...");
-
-                int points = MAX_CATGEORY_POINTS;
-                double lastVal = -1.0;
-
-                String currScoreColumn = scoreColumns.remove(0);
-                int numScoreCol = columnToInt(currScoreColumn);
-                link.sortByDescending(tab, currScoreColumn, size);
-
-                pointsPerPlayer.clear();
-
-                List<List<Object>> table = link.getSheetValues(tab);
-                table.remove(0);
-
-                for (List<Object> row : table) {
-                    double currVal = Double.parseDouble(
-                            row.get(numScoreCol).toString());
-                    if (lastVal == -1.0) {
-                        lastVal = currVal;
-                    } else if (currVal == 0.0) {
-                        points = 0;
-                    } else if (currVal < lastVal && points > 0) {
-                        lastVal = currVal;
-                        points--;
-                    }
-
-                    pointsPerPlayer.add(points);
-                }
-
-                String updateRange = link.buildRange(tab,
-                        column, 2,
-                        column, 2 + (size - 1));
-                ValueRange newColumn = link.buildColumn(pointsPerPlayer);
-                link.updateRange(updateRange, newColumn);
-
-                wait(5000);
+            ranking.calculate();
+            if (ranking.size() == 0) {
+                return false;
             }
 
-            wait(5000);
+            String updateRange = link.buildRange(tab,
+                    "A", 2,
+                    intToColumn(SCORE_COLUMNS_START + CycleRanking.NUM_TOTAL_SCORES - 1),
+                    ranking.size() + 1);
+            link.updateRange(updateRange, link.buildTable(ranking.toTable()));
+
             return false;
         } catch (IOException e) {
-            editMessage(sc, "An error occurred while calculating points.");
+            progress.accept("An error occurred while calculating points.");
             log("An error occurred with the points calculation.", true);
         }
 
@@ -255,134 +194,240 @@ public class PointsCalculator extends Section implements Command {
     }
 
     /**
-     * Initializes the Points Calculation spreadsheet.
+     * Copies the leaderboard of the eligible players for the points calculation.
      * @param sc the user's inputted command.
-     * @param tab the name of the spreadsheet tab to edit.
+     * @param progress reports the progress of the cycle change.
+     * @param tab the name of the spreadsheet tab to copy.
      * @param minimumSets the minimum number of sets to be considered
      *                    for point eligibility.
      * @param fromLink a connection to the leaderboard spreadsheet.
-     * @param toLink a connection to the points spreadsheet.
-     * @return the amount of players eligible for points.
-     *         -1 if an error occurred.
+     * @param allPlayers the ranking to fill with the stats of every
+     *                   player, eligible or not.
+     * @return the stats of the players eligible for points.
+     *         null if an error occurred.
      */
-    public int initializeCopy(SlashCommandEvent sc, String tab, int minimumSets,
-                               GoogleSheetsAPI fromLink, GoogleSheetsAPI toLink) {
+    public CycleRanking initializeCopy(SlashCommandEvent sc,
+                                       Consumer<String> progress, String tab,
+                                       int minimumSets, GoogleSheetsAPI fromLink,
+                                       CycleRanking allPlayers) {
         try {
-            TreeMap<Object, Object> data = fromLink.readSection(sc, tab);
-
-            int size = 0;
-            for (Map.Entry<Object, Object> mapping : data.entrySet()) {
-                PlayerStats player = (PlayerStats) mapping.getValue();
-
-                int setWins = player.getSetWins();
-                int setLosses = player.getSetLosses();
-                int setsPlayed = setWins + setLosses;
+            SheetStream<PlayerStats> data = fromLink.streamSection(
+                    sc, tab, PlayerStats.SCHEMA, COPY_WINDOW_ROWS);
+            CycleRanking ranking = new CycleRanking(COPY_WINDOW_ROWS);
+
+            while (data.hasNext()) {
+                SheetStream.Row<PlayerStats> row = data.next();
+                PlayerStats player = row.getValue();
+                allPlayers.add(row.getID(),
+                        player.getName(), player.getNickname(),
+                        player.getSetWins(), player.getSetLosses(),
+                        player.getGamesWon(), player.getGamesLost());
+
+                int setsPlayed = player.getSetWins() + player.getSetLosses();
                 if (setsPlayed < minimumSets) {
                     continue;
                 }
 
-                double setWinrate = 0.0;
-                if (setsPlayed > 0) {
-                    setWinrate = (double) setWins / setsPlayed;
-                }
-
-                int gameWins = player.getGamesWon();
-                int gameLosses = player.getGamesLost();
-                int gamesPlayed = gameWins + gameLosses;
-                double gameWinrate = 0.0;
-                if (gamesPlayed > 0) {
-                    gameWinrate =  (double) gameWins / gamesPlayed;
-                }
-
-                String updateRange = toLink.buildRange(tab,
-                        "A", size + 2,
-                        intToColumn(SCORE_COLUMNS_START - 1), size + 2);
-                ValueRange newRow = fromLink.buildRow(Arrays.asList(
-                        mapping.getKey(), player.getName(), player.getNickname(),
-                        setWins, setLosses, setsPlayed, setWinrate,
-                        gameWins, gameLosses, gamesPlayed, gameWinrate));
-                toLink.updateRange(updateRange, newRow);
-                size++;
-                wait(2500);
+                ranking.add(row.getID(),
+                        player.getName(), player.getNickname(),
+                        player.getSetWins(), player.getSetLosses(),
+                        player.getGamesWon(), player.getGamesLost());
             }
 
-            editMessage(sc, "Calculating points...");
-            return size;
-        } catch (IOException e) {
-            editMessage(sc, "An error occurred while copying over the "
+            progress.accept("Calculating points...");
+            return ranking;
+        } catch (UncheckedIOException e) {
+            progress.accept("An error occurred while copying over the "
                     + "leaderboard data.");
             log("The cycles data could not be copied over.", true);
-            return -1;
+            return null;
         }
     }
 
     /**
-     * Runs the cycles calculation command.
-     * @param sc the command to analyze.
+     * Performs the cycle change of the section, unless another one
+     * of the section is already running.
+     * @param sc the user's inputted command.
+     * @param progress reports the progress of the cycle change.
+     * @return True if the cycle change was completed.
+     *         False otherwise.
      */
-    @Override
-    public void runCmd(SlashCommandEvent sc) {
-        sc.deferReply(false).queue();
+    public boolean changeCycle(SlashCommandEvent sc, Consumer<String> progress) {
+        ReentrantLock lock = changeLocks.computeIfAbsent(
+                getPrefix(), prefix -> new ReentrantLock());
+        if (!lock.tryLock()) {
+            progress.accept("A " + getSection() + " cycle change is already running.");
+            return false;
+        }
+
+        try {
+            return performCycleChange(sc, progress);
+        } finally {
+            lock.unlock();
+        }
+    }
 
+    /**
+     * Performs the cycle change of the section, from copying its
+     * leaderboard to starting its new cycle.
+     * @param sc the user's inputted command.
+     * @param progress reports the progress of the cycle change.
+     * @return True if the cycle change was completed.
+     *         False otherwise.
+     *
+     * Note: Each completed stage is recorded within a checkpoint, so
+     *       running the cycle change again after a failure resumes it
+     *       from the first unfinished stage. The points spreadsheet's
+     *       new tab is duplicated while the leaderboard is being
+     *       copied, as neither needs the other. The ledger starts the
+     *       new cycle right before the copy, and does not project onto
+     *       the spreadsheet again until the new cycle's tab exists.
+     */
+    private boolean performCycleChange(SlashCommandEvent sc,
+                                       Consumer<String> progress) {
         // tab names of the spreadsheets
         String currentTab = CYCLES_TAB;
         String previousTab = "Previous Cycle";
         String templateTab = "Blank";
 
+        CycleLedger ledger = CycleLedger.getInstance(getPrefix());
+        CycleChangeCheckpoint checkpoint =
+                CycleChangeCheckpoint.load(ledger.getDirectory());
+        if (checkpoint.isResumed()) {
+            progress.accept("Resuming the " + getSection() + " cycle change...");
+            log("(Cycle Change) Resuming an unfinished cycle change.", false);
+        }
+
         try {
-            int minimumSets = 3;
-            GoogleSheetsAPI leaderboard = new GoogleSheetsAPI(cyclesSheetID());
-            GoogleSheetsAPI points = new GoogleSheetsAPI(calculationsSheetID());
-            if (getSection().equals("Ink Odyssey")) {
-                minimumSets = 0;
+            int minimumSets = getMinimumSets();
+            GoogleSheetsAPI leaderboard = GoogleSheetsAPI.getLink(cyclesSheetID());
+            GoogleSheetsAPI points = GoogleSheetsAPI.getLink(calculationsSheetID());
+
+            // a tab left by an interrupted duplicate is kept as is
+            CompletableFuture<Void> duplicated = CompletableFuture.completedFuture(null);
+            if (!checkpoint.isDone(CycleChangeCheckpoint.POINTS_TAB_CREATED)
+                    && !points.hasTab(currentTab)) {
+                duplicated = points.duplicateTabAsync(templateTab, currentTab);
             }
 
-            points.duplicateTab(templateTab, currentTab);
+            CycleRanking ranking = checkpoint.getRanking();
+            if (ranking == null) {
+                if (!checkpoint.isDone(CycleChangeCheckpoint.CYCLE_RESET)) {
+                    // push any reports still waiting on the cycles spreadsheet,
+                    // leaving later reports to the new cycle
+                    progress.accept("Pushing remaining reports...");
+                    ledger.closeCycle(checkpoint.getStartTime());
+                    checkpoint.complete(CycleChangeCheckpoint.CYCLE_RESET);
+                }
 
-            wait(10000);
-            editMessage(sc, "Copying " + getSection() + " spreadsheet...");
+                progress.accept("Copying " + getSection() + " spreadsheet...");
+                log("(Cycle Change) A leaderboard is being copied to the "
+                        + getSection() + " points spreadsheet.", false);
+                CycleRanking allPlayers = new CycleRanking(COPY_WINDOW_ROWS);
+                ranking = initializeCopy(sc, progress, currentTab,
+                        minimumSets, leaderboard, allPlayers);
+                if (ranking != null) {
+                    // archived while every player's stats are at hand
+                    progress.accept("Archiving " + getSection() + " stats...");
+                    CycleArchive.write(ledger.getDirectory().resolve(ARCHIVE_DIRECTORY),
+                            checkpoint.getStartTime(), allPlayers, ranking);
+                    checkpoint.complete(CycleChangeCheckpoint.STATS_ARCHIVED);
+                    checkpoint.completeCopy(ranking);
+                }
+            }
 
-            log("(Cycle Change) A leaderboard is being copied to the "
-                    + getSection() + " points spreadsheet.", false);
-            int totalPlayers = initializeCopy(
-                    sc, currentTab, minimumSets, leaderboard, points);
-            if (totalPlayers == -1) {
-                throw new IOException();
+            try {
+                duplicated.join();
+            } catch (CompletionException e) {
+                throw new IOException(e.getCause());
+            }
+            if (!checkpoint.isDone(CycleChangeCheckpoint.POINTS_TAB_CREATED)) {
+                checkpoint.complete(CycleChangeCheckpoint.POINTS_TAB_CREATED);
             }
 
-            log("(Cycle Change) Points are being calculated...", false);
-            if (calculatePointsUnsuccessful(sc, totalPlayers, currentTab, points)) {
+            if (ranking == null) {
                 throw new IOException();
             }
 
-            log("(Cycle Change) Retrieving Top 10 players...", false);
-            TreeMap<Object, Integer> scores =
-                    findTopTen(sc, getSection(), totalPlayers, currentTab, points);
-            if (scores == null) {
-                throw new IOException();
+            if (!checkpoint.isDone(CycleChangeCheckpoint.POINTS_WRITTEN)) {
+                log("(Cycle Change) Points are being calculated...", false);
+                if (calculatePointsUnsuccessful(progress, ranking, currentTab, points)) {
+                    throw new IOException();
+                }
+                checkpoint.complete(CycleChangeCheckpoint.POINTS_WRITTEN);
             }
 
-            log("(Cycle Change) Updating public leaderboard...", false);
-            if (updateLeaderboardUnsuccessful(sc, scores, currentTab, leaderboard)) {
-                throw new IOException();
+            if (!checkpoint.isDone(CycleChangeCheckpoint.STATS_ARCHIVED)) {
+                // a resumed copy kept only the players eligible for points
+                progress.accept("Archiving " + getSection() + " stats...");
+                CycleArchive.write(ledger.getDirectory().resolve(ARCHIVE_DIRECTORY),
+                        checkpoint.getStartTime(), ranking, ranking);
+                checkpoint.complete(CycleChangeCheckpoint.STATS_ARCHIVED);
+            }
+
+            TreeMap<Object, Integer> scores;
+            if (!checkpoint.isDone(CycleChangeCheckpoint.TOP_TEN_ANNOUNCED)) {
+                log("(Cycle Change) Retrieving Top 10 players...", false);
+                scores = findTopTen(sc, progress, getSection(), ranking);
+                checkpoint.complete(CycleChangeCheckpoint.TOP_TEN_ANNOUNCED);
+            } else {
+                scores = findScores(ranking);
+            }
+
+            if (!checkpoint.isDone(CycleChangeCheckpoint.LEADERBOARD_UPDATED)) {
+                log("(Cycle Change) Updating public leaderboard...", false);
+                if (updateLeaderboardUnsuccessful(progress, scores, currentTab, leaderboard)) {
+                    throw new IOException();
+                }
+                checkpoint.complete(CycleChangeCheckpoint.LEADERBOARD_UPDATED);
             }
 
             // update the points spreadsheet up to the previous cycle
-            points.renameTab(previousTab, "2 Cycles Ago");
-            points.renameTab(currentTab, previousTab);
+            progress.accept("Starting the new cycle...");
+            if (!checkpoint.isDone(CycleChangeCheckpoint.POINTS_ARCHIVED)) {
+                points.renameTab(previousTab, "2 Cycles Ago");
+                checkpoint.complete(CycleChangeCheckpoint.POINTS_ARCHIVED);
+            }
+            if (!checkpoint.isDone(CycleChangeCheckpoint.POINTS_ROTATED)) {
+                points.renameTab(currentTab, previousTab);
+                checkpoint.complete(CycleChangeCheckpoint.POINTS_ROTATED);
+            }
 
             // update the leaderboard spreadsheet up to the new cycle
-            leaderboard.renameTab(currentTab, previousTab);
-            leaderboard.duplicateTab(templateTab, currentTab);
+            if (!checkpoint.isDone(CycleChangeCheckpoint.LEADERBOARD_ROTATED)) {
+                leaderboard.renameTab(currentTab, previousTab);
+                checkpoint.complete(CycleChangeCheckpoint.LEADERBOARD_ROTATED);
+            }
+            if (!checkpoint.isDone(CycleChangeCheckpoint.LEADERBOARD_CREATED)) {
+                if (!leaderboard.hasTab(currentTab)) {
+                    leaderboard.duplicateTab(templateTab, currentTab);
+                }
+                checkpoint.complete(CycleChangeCheckpoint.LEADERBOARD_CREATED);
+            }
+            ledger.resumeProjection();
+            checkpoint.clear();
 
             log("(Cycle Change) Top 10 for " + getSection() + " completed.", false);
-            wait(2000);
+            progress.accept("Here are your " + getSection() + " Cycle Top 10s!");
+            return true;
+        } catch (GeneralSecurityException | IOException e) {
+            log("A spreadsheet during calculations could not load.", true);
+            return false;
+        }
+    }
 
-            editMessage(sc, "Here are your " + getSection() + " Cycle Top 10s!");
+    /**
+     * Runs the cycles calculation command.
+     * @param sc the command to analyze.
+     */
+    @Override
+    public void runCmd(SlashCommandEvent sc) {
+        sc.deferReply(false).queue();
+
+        if (changeCycle(sc, status -> editMessage(sc, status))) {
             log("Cycle change has been completed.", false);
-        } catch (GeneralSecurityException | IOException e) {
+        } else {
             sendResponse(sc, "An error occurred during the calculation.", false);
-            log("A spreadsheet during calculations could not load.", true);
         }
     }
 }
@@ -0,0 +1,64 @@
+package bot.Engine.Cycles;
+
+import bot.Engine.Section;
+import bot.Engine.Templates.Command;
+
+import net.dv8tion.jda.api.events.interaction.SlashCommandEvent;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.List;
+
+/**
+ * @author  Wil Aquino
+ * Date:    August 20, 2022
+ * Project: Libra
+ * Module:  TopTen.java
+ * Purpose: Shows the provisional Top 10 of a section's
+ *          current cycle.
+ */
+public class TopTen extends Section implements Command {
+
+    /**
+     * Constructs the Top 10 attributes.
+     * @param abbreviation the abbreviation of the section.
+     */
+    public TopTen(String abbreviation) {
+        super(abbreviation);
+    }
+
+    /**
+     * Runs the provisional Top 10 command.
+     * @param sc the command to analyze.
+     *
+     * Note: The Top 10 is kept up to date with every report,
+     *       so no spreadsheet is read or sorted. The reply is still
+     *       deferred, as the first command after a restart loads
+     *       the section's event log.
+     */
+    @Override
+    public void runCmd(SlashCommandEvent sc) {
+        sc.deferReply(false).queue();
+
+        try {
+            List<LiveRanking.Placement> placements =
+                    CycleLedger.getInstance(getPrefix()).getTopTen();
+
+            StringBuilder topTen = new StringBuilder();
+            for (LiveRanking.Placement placement : placements) {
+                topTen.append(String.format("@.%s (%s) - %s points\n",
+                        placement.getName(), placement.getPlacing(),
+                        placement.getTotal()));
+            }
+            if (placements.isEmpty()) {
+                topTen.append("No eligible players yet.\n");
+            }
+
+            editMessage(sc, "Provisional Top 10 for " + getSection() + ":\n```"
+                    + topTen + "```");
+        } catch (IOException | GeneralSecurityException e) {
+            editMessage(sc, "The Top 10 could not be calculated.");
+            log("The " + getSection() + " cycle log could not load.", true);
+        }
+    }
+}
@@ -1,17 +1,13 @@
 package bot.Engine.Cycles;
 
 import bot.Engine.Templates.Command;
-import bot.Tools.FileHandler;
-import bot.Tools.GoogleSheetsAPI;
 
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.events.interaction.SlashCommandEvent;
-
-import com.google.api.services.sheets.v4.model.ValueRange;
+import net.dv8tion.jda.api.interactions.commands.OptionMapping;
 
 import java.awt.Color;
-import java.util.TreeMap;
-import java.util.Arrays;
+import java.util.List;
 import java.io.IOException;
 import java.security.GeneralSecurityException;
 
@@ -20,7 +16,8 @@ import java.security.GeneralSecurityException;
  * Date:    June 1, 2021
  * Project: Libra
  * Module:  Undo.java
- * Purpose: Reverts the Cycle spreadsheet to the previous state.
+ * Purpose: Reverts (or restores) a recent report to the
+ *          Cycle spreadsheet.
  */
 public class Undo extends ManualLog implements Command {
 
@@ -33,173 +30,85 @@ public class Undo extends ManualLog implements Command {
     }
 
     /**
-     * Checks if this is a draft or sub command.
-     * @param args the user input.
-     * @return True if a draft command was called.
-     *         False if a sub command was called.
+     * Checks if this is an undo or redo command.
+     * @param cmd the formal name of the command.
+     * @return True if an undo command was called.
+     *         False if a redo command was called.
      */
-    public boolean notSub(String[] args) {
-        return args[0].contains("log");
+    public boolean isUndo(String cmd) {
+        return cmd.equals("undo");
     }
 
     /**
-     * Retrieve the amount of set games were played.
-     * @param args the user input.
+     * Retrieves the journal entry to revert.
+     * @param args the arguments of the command.
+     * @return said entry.
+     *         0 if the most recent one should be reverted.
      */
-    public int getGamesPlayed(String[] args) {
-        return Integer.parseInt(args[1]);
-    }
+    public long getEntry(List<OptionMapping> args) {
+        if (args.isEmpty()) {
+            return 0;
+        }
 
-    /**
-     * Retrieve the amount of won set games.
-     * @param args the user input.
-     */
-    public int getGamesWon(String[] args) {
-        return Integer.parseInt(args[2]);
+        return args.get(0).getAsLong();
     }
 
     /**
      * Print the summary of the cycle revert.
      * @param sc the user's inputted command.
-     * @param lastInput the previously inputted command.
-     * @param userArgs the amount of user arguments within the input.
-     * @param errorsFound array of errors found for each player, if any
-     *                    (0 if no errors occurred, 1 otherwise).
+     * @param undo True if the report was undone.
+     *             False if it was redone.
+     * @param entry the reverted report.
      */
-    private void sendReport(SlashCommandEvent sc, String[] lastInput,
-                            int userArgs, int[] errorsFound) {
+    private void sendReport(SlashCommandEvent sc, boolean undo,
+                            CycleJournal.Entry entry) {
         EmbedBuilder eb = new EmbedBuilder();
-        StringBuilder input = new StringBuilder();
         StringBuilder playerList = new StringBuilder();
 
-        for (int i = 0; i < lastInput.length; i++) {
-            String currentArg = lastInput[i];
-            input.append(currentArg).append(" ");
-
-            if (i > 2 && i < userArgs + 3) {
-                String completionSymbol = ":white_check_mark: ";
-                if (errorsFound[i - 3] == 1) {
-                    completionSymbol = ":no_entry: ";
-                }
-
-                playerList.append(completionSymbol)
-                        .append(currentArg).append("\n");
-            }
+        for (CycleEvent event : entry.getEvents()) {
+            playerList.append(":white_check_mark: <@")
+                    .append(event.getPlayerID()).append(">\n");
         }
 
-        eb.setTitle("Summary of Revert")
+        eb.setTitle(undo ? "Summary of Revert" : "Summary of Redo")
                 .setColor(Color.WHITE)
-                .addField("Previous Input:", input.toString(), false)
-                .addField("Players Updated:", playerList.toString(), false);
-        if (sum(errorsFound, errorsFound.length - 1) == 0) {
-            eb.addField("Status:", "COMPLETE", false);
-        } else {
-            eb.setColor(Color.RED);
-            eb.addField("Status:", "INCOMPLETE", false);
-        }
+                .addField("Previous Input:", entry.getCommand(), false)
+                .addField("Players Updated:", playerList.toString(), false)
+                .addField("Status:", "COMPLETE", false)
+                .setFooter("Entry #" + entry.getSequence());
 
         sendEmbed(sc, eb);
     }
 
     /**
-     * Updates a user's stats within a spreadsheet.
-     * @param args the arguments of the command.
-     * @param link a connection to the spreadsheet.
-     * @param user the user to revert the stats of.
-     * @param stats the stats of the player.
-     * @return 0 if the player could be found in the spreadsheet.
-     *         1 otherwise.
-     */
-    private int undoUser(String[] args, GoogleSheetsAPI link,
-                         String user, PlayerStats stats) {
-        String userID = user.substring(2, user.length() - 1);
-
-        try {
-            int gamesPlayed = getGamesPlayed(args);
-            int gameWins = getGamesWon(args);
-            int gameLosses = gamesPlayed - gameWins;
-            double gameWinrate = 0.0;
-
-            int setWins = stats.getSetWins();
-            int setLosses = stats.getSetLosses();
-            int setsPlayed = setWins + setLosses;
-            double setWinrate = 0.0;
-            if (notSub(args)) {
-                if (cycleSetWon(gameWins, gamesPlayed)) {
-                    setWins--;
-                } else {
-                    setLosses--;
-                }
-
-                setsPlayed--;
-            }
-            if (setsPlayed > 0) {
-                setWinrate = (double) setWins / setsPlayed;
-            }
-
-            gameWins = stats.getGamesWon() - gameWins;
-            gameLosses = stats.getGamesLost() - gameLosses;
-            gamesPlayed = gameWins + gameLosses;
-            if (gamesPlayed > 0) {
-                gameWinrate = (double) gameWins / gamesPlayed;
-            }
-
-            String updateRange = link.buildRange(CYCLES_TAB,
-                    CYCLES_START_COLUMN, stats.getSpreadsheetPosition(),
-                    CYCLES_END_COLUMN, stats.getSpreadsheetPosition());
-            ValueRange newRow = link.buildRow(Arrays.asList(
-                    stats.getName(), stats.getNickname(),
-                    setWins, setLosses, setsPlayed, setWinrate,
-                    gameWins, gameLosses, gamesPlayed, gameWinrate));
-            link.updateRange(updateRange, newRow);
-
-            return 0;
-        } catch (IOException e) {
-            log(getPrefix() + " cycle undo error"
-                    + "occurred with <@" + userID + ">.", true);
-            return 1;
-        }
-    }
-
-    /**
-     * Runs a cycle undoing command.
+     * Runs a cycle undoing or redoing command.
      * @param sc the user's inputted command.
+     *
+     * Note: Any of the section's recent reports within the current
+     *       cycle can be undone, and redone afterwards. Without an
+     *       entry, the most recent report is undone (or redone).
      */
     @Override
     public void runCmd(SlashCommandEvent sc) {
         sc.deferReply(false).queue();
 
+        String cmd = sc.getSubcommandName();
+        boolean undo = isUndo(cmd);
+
         try {
-            GoogleSheetsAPI link = new GoogleSheetsAPI(cyclesSheetID());
-            TreeMap<Object, Object> data = link.readSection(sc, CYCLES_TAB);
-            FileHandler undoFile = new FileHandler(
-                    "load" + getPrefix().toUpperCase() + ".txt");
-
-            String lastMessage = undoFile.readFirstLine();
-            if (lastMessage == null) {
-                throw new IOException("An error occurred with the undo file.");
-            } else if (lastMessage.equals("REDACTED")) {
-                editMessage(sc, "There is nothing to revert.");
+            CycleJournal.Entry entry = CycleLedger.getInstance(getPrefix())
+                    .toggle(getEntry(sc.getOptions()), undo);
+            if (entry == null) {
+                editMessage(sc, undo
+                        ? "There is nothing to revert."
+                        : "There is nothing to redo.");
                 return;
             }
 
-            String[] messageArgs = lastMessage.split("\\s+", 7);
-            int userArgs = messageArgs.length - 3;
-
-            int[] errorsFound = new int[userArgs];
-            for (int i = 3; i < userArgs + 3; i++) {
-                String userID = messageArgs[i].substring(
-                        2, messageArgs[i].length() - 1);
-                PlayerStats stats = (PlayerStats) data.get(userID);
-                errorsFound[i - 3] = undoUser(messageArgs, link,
-                        messageArgs[i], stats);
-            }
-
-            undoFile.writeContents("REDACTED");
-
-            sendReport(sc, messageArgs, userArgs, errorsFound);
-            log(getPrefix().toUpperCase()
-                    + " draft undo was processed.", false);
+            sendReport(sc, undo, entry);
+            log(getPrefix().toUpperCase() + " draft " + cmd
+                    + " of entry #" + entry.getSequence()
+                    + " was processed.", false);
         } catch (IOException | GeneralSecurityException e) {
             editMessage(sc, "The save could not load.");
             log("The saved " + getPrefix().toUpperCase()
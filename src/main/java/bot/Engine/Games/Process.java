@@ -16,7 +16,6 @@ import java.util.List;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Map;
-import java.util.TreeMap;
 import java.util.Random;
 
 /**
@@ -267,12 +266,12 @@ public class Process<G extends Game<?, ?, T, P>, T extends Team<P>, P extends Pl
      * @return the balanced list.
      */
     private List<String> getBalancedPlayerList(
-            TreeMap<Object, Object> database) {
+            Map<String, PlayerInfo> database) {
         List<String> supportsAnchors = new ArrayList<>();
         List<String> otherPlayers = new ArrayList<>();
 
         for (String id : getRequest().getPlayers().keySet()) {
-            PlayerInfo profile = (PlayerInfo) database.get(id);
+            PlayerInfo profile = database.get(id);
             if (profile != null && (profile.getPlaystyle().equals("Support")
                     || profile.getPlaystyle().equals("Anchor"))) {
                 supportsAnchors.add(id);
@@ -298,8 +297,10 @@ public class Process<G extends Game<?, ?, T, P>, T extends Team<P>, P extends Pl
      */
     public void randomizeBalancedTeams(ButtonClickEvent bc) {
         Profile profiles = new Profile();
-        TreeMap<Object, Object> database =
-                profiles.onlyGetDatabase(bc, null);
+        Map<String, PlayerInfo> database = profiles.onlyGetDatabase();
+        if (database == null) {
+            database = Collections.emptyMap();
+        }
 
         getTeam1().clear();
         getTeam2().clear();
@@ -309,7 +310,7 @@ public class Process<G extends Game<?, ?, T, P>, T extends Team<P>, P extends Pl
 
         for (String id : getBalancedPlayerList(database)) {
             P player = getRequest().getPlayers().get(id);
-            PlayerInfo profile = (PlayerInfo) database.get(id);
+            PlayerInfo profile = database.get(id);
 
             if (profile != null && profile.getPlaystyle().equals("Anchor")) {
                 if (getTeam1().needsPlayers() && anchorFound % 2 == 0) {
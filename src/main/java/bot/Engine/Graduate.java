@@ -2,19 +2,20 @@ package bot.Engine;
 
 import bot.Engine.Templates.Command;
 import bot.Tools.GoogleSheetsAPI;
+import bot.Tools.SectionIndex;
+import bot.Tools.SheetSchema;
 
 import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.events.interaction.SlashCommandEvent;
 import net.dv8tion.jda.api.interactions.commands.OptionMapping;
 
-import com.google.api.services.sheets.v4.model.ValueRange;
-
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Arrays;
-import java.util.TreeMap;
 import java.io.IOException;
 import java.security.GeneralSecurityException;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author  Wil Aquino
@@ -28,6 +29,10 @@ public class Graduate extends Section implements Command {
     /** The tab name of the spreadsheet. */
     private static final String TAB = "Graduates";
 
+    /** The columns of the graduates spreadsheet, decoded into row numbers. */
+    private static final SheetSchema<Integer> GRADUATES_SCHEMA =
+            new SheetSchema<>(Integer::valueOf);
+
     /**
      * Constructs the graduation attributes.
      * @param abbreviation the abbreviation of the section.
@@ -57,19 +62,17 @@ public class Graduate extends Section implements Command {
     /**
      * Graduates a user within MIT.
      * @param sc the user's inputted command.
-     * @param playerID the Discord ID of the player to graduate.
+     * @param player the player to graduate.
      * @return a graduation congratulation message.
      */
-    private String graduate(SlashCommandEvent sc, String playerID,
-                            GoogleSheetsAPI link,
-                            TreeMap<Object, Object> data) throws IOException {
+    private String graduate(SlashCommandEvent sc, Member player) {
         String rulesChannel;
         String exitMessage;
 
         switch (getPrefix()) {
             case "fs":
             case "lp":
-                modifyRoles(sc, playerID,
+                modifyRoles(sc, player,
                         Arrays.asList(
                                 getRole(sc, getSection() + " Graduate"),
                                 getRole(sc, getNextSection())),
@@ -84,7 +87,7 @@ public class Graduate extends Section implements Command {
                         + "in any drafts!";
                 break;
             default:
-                modifyRoles(sc, playerID,
+                modifyRoles(sc, player,
                         Collections.singletonList(
                                 getRole(sc, getSection() + " Graduate")),
                         Collections.singletonList(
@@ -95,54 +98,84 @@ public class Graduate extends Section implements Command {
                 break;
         }
 
-        if (!data.containsKey(playerID)) {
-            Member player = findMember(sc, playerID);
-            ValueRange newRow = link.buildRow(Arrays.asList(
-                        playerID, player.getUser().getAsTag(),
-                        player.getEffectiveName()));
-            link.appendRow(TAB, newRow);
+        return exitMessage;
+    }
+
+    /**
+     * Graduates every user of the command, noting the new graduates
+     * within the spreadsheet.
+     * @param sc the user's inputted command.
+     * @param link the connection to the graduates spreadsheet.
+     * @param data the graduates already within the spreadsheet.
+     * @return the eventual summary of the graduations.
+     */
+    private CompletableFuture<String> graduateAll(SlashCommandEvent sc,
+                                                  GoogleSheetsAPI link,
+                                                  SectionIndex<Integer> data) {
+        List<OptionMapping> args = sc.getOptions();
+        List<List<Object>> newRows = new ArrayList<>();
+
+        StringBuilder listOfUsers = new StringBuilder();
+        for (OptionMapping om : args) {
+            Member player = om.getAsMember();
+            String exitMessage = graduate(sc, player);
+            if (!data.containsKey(player.getId())) {
+                newRows.add(Arrays.asList(player.getId(),
+                        player.getUser().getAsTag(), player.getEffectiveName()));
+            }
+
+            Member finalUser = args.get(args.size() - 1).getAsMember();
+            if (player.getId().equals(finalUser.getId())) {
+                listOfUsers.append(player.getAsMention())
+                        .append("\n\n")
+                        .append(exitMessage);
+            } else {
+                listOfUsers.append(player.getAsMention()).append(" ");
+            }
         }
 
-        return exitMessage;
+        if (newRows.isEmpty()) {
+            return CompletableFuture.completedFuture(listOfUsers.toString());
+        }
+        return link.appendRowAsync(TAB, link.buildTable(newRows))
+                .thenApply(row -> listOfUsers.toString());
     }
 
     /**
      * Runs the graduation command.
      * @param sc the user's inputted command.
+     *
+     * Note: The spreadsheet is read while the reply is being deferred,
+     *       and neither blocks Discord's event thread.
      */
     @Override
     public void runCmd(SlashCommandEvent sc) {
-        sc.deferReply(false).queue();
-        List<OptionMapping> args = sc.getOptions();
-
+        GoogleSheetsAPI link;
         try {
-            GoogleSheetsAPI link = new GoogleSheetsAPI(gradSheetID());
-            TreeMap<Object, Object> data = link.readSection(sc, TAB);
-
-            StringBuilder listOfUsers = new StringBuilder();
-            for (OptionMapping om : args) {
-                Member player = om.getAsMember();
-                String exitMessage = graduate(sc, player.getId(), link, data);
-                if (exitMessage == null) {
-                    throw new IOException();
-                }
-
-                Member finalUser = args.get(args.size() - 1).getAsMember();
-                if (player.getId().equals(finalUser.getId())) {
-                    listOfUsers.append(player.getAsMention())
-                            .append("\n\n")
-                            .append(exitMessage);
-                } else {
-                    listOfUsers.append(player.getAsMention()).append(" ");
-                }
-            }
-
-            editMessage(sc, listOfUsers.toString());
-            log(args.size() + " " + getSection() + " graduate(s) processed.", false);
+            link = GoogleSheetsAPI.getLink(gradSheetID());
         } catch (IOException | GeneralSecurityException e) {
+            sc.deferReply(false).queue();
             editMessage(sc, "The spreadsheet could not load.");
             log("The " + getSection()
                     + " graduates spreadsheet could not load.", true);
+            return;
         }
+
+        int numUsers = sc.getOptions().size();
+        sc.deferReply(false).submit()
+                .thenCombine(link.readSectionAsync(sc, TAB, GRADUATES_SCHEMA),
+                        (hook, data) -> data)
+                .thenCompose(data -> graduateAll(sc, link, data))
+                .whenComplete((summary, e) -> {
+                    if (e == null) {
+                        editMessage(sc, summary);
+                        log(numUsers + " " + getSection()
+                                + " graduate(s) processed.", false);
+                    } else {
+                        editMessage(sc, "The spreadsheet could not load.");
+                        log("The " + getSection()
+                                + " graduates spreadsheet could not load.", true);
+                    }
+                });
     }
 }
@@ -1,10 +1,14 @@
 package bot.Engine.Profiles;
 
+import bot.Tools.SheetSchema;
+
 import net.dv8tion.jda.api.events.interaction.GenericInteractionCreateEvent;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -43,9 +47,29 @@ public class PlayerInfo {
     /** The competitive team the player is on. */
     private String team;
 
+    /** The columns of the profiles spreadsheet, decoded into profiles. */
+    public static final SheetSchema<PlayerInfo> SCHEMA =
+            new SheetSchema<>(PlayerInfo::new)
+                    .bindString("B", (info, value) -> info.tag = value)
+                    .bindString("C", (info, value) -> info.nickname = value)
+                    .bindString("D", (info, value) -> info.friendcode = value)
+                    .bindString("E", (info, value) -> info.pronouns = value)
+                    .bindString("F", (info, value) -> info.playstyle = value)
+                    .bindString("G", (info, value) -> info.weapons = value)
+                    .bindString("H", (info, value) -> info.rank = value)
+                    .bindString("I", (info, value) -> info.team = value);
+
+    /**
+     * Construct the object with an empty profile.
+     * @param pos the row of the player within the profiles spreadsheet.
+     */
+    private PlayerInfo(int pos) {
+        numRow = pos;
+    }
+
     /**
      * Construct the object by storing row data.
-     * @param interaction the user interaction calling this method.
+     * @param interaction the user interaction calling this method, if any.
      * @param pos the row of the player within the profiles spreadsheet.
      * @param row the row data.
      */
@@ -65,12 +89,23 @@ public class PlayerInfo {
         } catch (IndexOutOfBoundsException | NumberFormatException e) {
             Logger logger = LoggerFactory.getLogger(this.getClass());
             logger.error("Spreadsheet formatting problem detected.");
-            interaction.getHook().sendMessage(
-                    "***There seems to be a formatting problem within the "
-                            + "spreadsheet.*** Please fix it!").queue();
+            if (interaction != null) {
+                interaction.getHook().sendMessage(
+                        "***There seems to be a formatting problem within the "
+                                + "spreadsheet.*** Please fix it!").queue();
+            }
         }
     }
 
+    /**
+     * Retrieves the profile as a spreadsheet row, excluding
+     * the player's Discord ID.
+     */
+    public List<Object> toRow() {
+        return new ArrayList<>(Arrays.asList(tag, nickname, friendcode,
+                pronouns, playstyle, weapons, rank, team));
+    }
+
     /**
      * Retrieve the row number of the player's profile
      * within the profiles spreadsheet.
@@ -1,14 +1,12 @@
 package bot.Engine.Profiles;
 
 import bot.Config;
-import bot.Engine.Cycles.PlayerStats;
 import bot.Engine.Section;
 import bot.Main;
 import bot.Engine.Templates.Command;
 import bot.Tools.FileHandler;
 import bot.Tools.GoogleSheetsAPI;
-
-import com.google.api.services.sheets.v4.model.ValueRange;
+import bot.Tools.SheetColumns;
 
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.entities.Member;
@@ -25,7 +23,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Collections;
-import java.util.TreeMap;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -38,18 +36,6 @@ import java.util.regex.Pattern;
  */
 public class Profile implements Command {
 
-    /** Google Sheets ID of the spreadsheet to save to. */
-    private static final String spreadsheetID = Config.mitProfilesSheetID;
-
-    /** The spreadsheet's starting column with profile information. */
-    private static final String START_COLUMN = "B";
-
-    /** The spreadsheet's ending column with profile information. */
-    private static final String END_COLUMN = "I";
-
-    /** The tab name of the spreadsheet. */
-    private static final String TAB = "Profiles";
-
     /** A pattern for friend codes to follow. */
     private static final String FC_PATTERN = "\\d{4}-\\d{4}-\\d{4}";
 
@@ -199,19 +185,12 @@ public class Profile implements Command {
 
     /**
      * Retrieves the Profiles database.
-     * @param interaction the user interaction calling this method.
-     * @param link a link to the Profiles spreadsheet.
-     * @return the database.
+     * @return the database, indexed by Discord ID.
      *         null otherwise.
      */
-    public TreeMap<Object, Object> onlyGetDatabase(
-            GenericInteractionCreateEvent interaction,
-            GoogleSheetsAPI link) {
+    public Map<String, PlayerInfo> onlyGetDatabase() {
         try {
-            if (link == null) {
-                link = new GoogleSheetsAPI(spreadsheetID);
-            }
-            return link.readSection(interaction, TAB);
+            return ProfileDatabase.getInstance().getProfiles();
         } catch (IOException | GeneralSecurityException e) {
             log("The profiles spreadsheet could not load.", true);
             return null;
@@ -221,12 +200,12 @@ public class Profile implements Command {
     /**
      * Looks up a player's profile.
      * @param id the player's Discord ID.
-     * @param database a map of players' profiles, indexed by Discord ID.
      * @return the player's profile.
      *         null if it could not be found.
      */
-    public PlayerInfo lookup(String id, TreeMap<Object, Object> database) {
-        return (PlayerInfo) database.get(id);
+    public PlayerInfo lookup(String id)
+            throws IOException, GeneralSecurityException {
+        return ProfileDatabase.getInstance().lookup(id);
     }
 
     /**
@@ -333,9 +312,8 @@ public class Profile implements Command {
         String rank = (String) getParameter(args, false);
 
         try {
-            GoogleSheetsAPI link = new GoogleSheetsAPI(spreadsheetID);
-            TreeMap<Object, Object> database = link.readSection(sc, TAB);
-            if (database.containsKey(sc.getMember().getId())) {
+            ProfileDatabase database = ProfileDatabase.getInstance();
+            if (database.lookup(sc.getMember().getId()) != null) {
                 editMessage(sc, "You cannot use `qprofile`, because your "
                                 + "profile already exists. Use the other "
                                 + "`profile` commands as needed.");
@@ -344,11 +322,10 @@ public class Profile implements Command {
                 Member user = sc.getMember();
                 String discordTag = user.getUser().getAsTag();
 
-                ValueRange newRow = link.buildRow(Arrays.asList(
+                database.add(Arrays.asList(
                         user.getId(), discordTag, nickname,
                         fc, reformatPhrase(pronouns.toLowerCase(), 1),
                         playstyle, reformatPhrase(weapons, 0), rank, "N/A"));
-                link.appendRow(TAB, newRow);
 
                 editMessage(sc, "Your MIT profile has been created! "
                         + "Use `/mit profile view` to view your profile.");
@@ -370,23 +347,17 @@ public class Profile implements Command {
         sc.deferReply(true).queue();
 
         try {
-            GoogleSheetsAPI link = new GoogleSheetsAPI(spreadsheetID);
-            TreeMap<Object, Object> database = link.readSection(sc, TAB);
+            ProfileDatabase database = ProfileDatabase.getInstance();
 
             Member user = sc.getMember();
             if (noParameterError(sc, fc, null, null, null, null)) {
-                if (database.containsKey(user.getId())) {
-                    PlayerInfo profile = lookup(user.getId(), database);
-
-                    String updateRange = link.buildRange(TAB,
-                            START_COLUMN, profile.getSpreadsheetPosition(),
-                            END_COLUMN, profile.getSpreadsheetPosition());
-                    ValueRange newRow = link.buildRow(Arrays.asList(
+                PlayerInfo profile = database.lookup(user.getId());
+                if (profile != null) {
+                    database.update(user.getId(), Arrays.asList(
                             profile.getAsTag(), profile.getNickname(),
                             fc, profile.getPlaystyle(),
                             profile.getWeaponPool(), profile.getRank(),
                             profile.getTeam()));
-                    link.updateRange(updateRange, newRow);
 
                     editMessage(sc,
                             "Friend code updated to `" + "`.");
@@ -395,11 +366,10 @@ public class Profile implements Command {
                 } else {
                     String discordTag = user.getUser().getAsTag();
 
-                    ValueRange newRow = link.buildRow(Arrays.asList(
+                    database.add(Arrays.asList(
                             user.getId(), discordTag, user.getEffectiveName(),
                             fc, "Unset",
                             "Unset", "Unset", "Unset", "N/A"));
-                    link.appendRow(TAB, newRow);
 
                     editMessage(sc, "Your MIT profile has been created! "
                             + "Use `/mit profile view` to view your profile.");
@@ -421,8 +391,6 @@ public class Profile implements Command {
         sc.deferReply(false).queue();
 
         try {
-            GoogleSheetsAPI link = new GoogleSheetsAPI(spreadsheetID);
-            TreeMap<Object, Object> database = link.readSection(sc, TAB);
             String pronoun = "Their";
 
             if (id == null) {
@@ -430,9 +398,8 @@ public class Profile implements Command {
                 pronoun = "Your";
             }
 
-            if (database.containsKey(id)) {
-                PlayerInfo profile = lookup(id, database);
-
+            PlayerInfo profile = lookup(id);
+            if (profile != null) {
                 editMessage(sc, pronoun + " friend code is `SW-"
                         + profile.getFC() + "`.");
                 log("Profile FC retrieved for "
@@ -488,18 +455,19 @@ public class Profile implements Command {
         }
 
         try {
-            GoogleSheetsAPI link = new GoogleSheetsAPI(leaderboardID);
-            TreeMap<Object, Object> leaderboard =
-                    link.readSection(interaction, Section.CYCLES_TAB);
-
-            if (leaderboard.containsKey(id)) {
-                PlayerStats stats = (PlayerStats) leaderboard.get(id);
-                return String.format(
-                        "%s-%s", stats.getSetWins(), stats.getSetLosses());
+            GoogleSheetsAPI link = GoogleSheetsAPI.getLink(leaderboardID);
+            SheetColumns leaderboard = link.readColumns(
+                    Section.CYCLES_TAB, 2, -1, "A", "D", "E");
+
+            int row = leaderboard.find("A", id);
+            if (row != -1) {
+                return String.format("%s-%s",
+                        leaderboard.getInt("D", row), leaderboard.getInt("E", row));
             } else {
                 return "0-0";
             }
-        } catch (IOException | GeneralSecurityException e) {
+        } catch (IOException | GeneralSecurityException
+                | NumberFormatException e) {
             log("The leaderboard spreadsheet could not load.", true);
             return "N/A";
         }
@@ -577,15 +545,14 @@ public class Profile implements Command {
                                            boolean fullDisplay, boolean showInfo,
                                            boolean shouldPrint) {
         try {
-            GoogleSheetsAPI link = new GoogleSheetsAPI(spreadsheetID);
-            TreeMap<Object, Object> database = link.readSection(interaction, TAB);
+            ProfileDatabase database = ProfileDatabase.getInstance();
             List<MessageEmbed> profiles = new ArrayList<>();
             if (pronoun == null) {
                 pronoun = "Their";
             }
 
             for (String id : ids) {
-                PlayerInfo profile = lookup(id, database);
+                PlayerInfo profile = database.lookup(id);
 
                 profiles.add(buildProfile(interaction, pronoun, id,
                         profile, fullDisplay, showInfo, shouldPrint).build());
@@ -708,22 +675,16 @@ public class Profile implements Command {
         sc.deferReply(true).queue();
 
         try {
-            GoogleSheetsAPI link = new GoogleSheetsAPI(spreadsheetID);
-            TreeMap<Object, Object> database = link.readSection(sc, TAB);
+            ProfileDatabase database = ProfileDatabase.getInstance();
 
             if (noParameterError(sc, null, nickname, pronouns, weapons, team)) {
-                if (database.containsKey(sc.getMember().getId())) {
-                    PlayerInfo profile = lookup(sc.getMember().getId(), database);
-
-                    String updateRange = link.buildRange(TAB,
-                            START_COLUMN, profile.getSpreadsheetPosition(),
-                            END_COLUMN, profile.getSpreadsheetPosition());
+                PlayerInfo profile = database.lookup(sc.getMember().getId());
+                if (profile != null) {
                     List<Object> updatedRow = withNewInfo(profile, nickname,
                             pronouns, playstyle, weapons, rank, team);
                     String changedField = (String) updatedRow.remove(0);
 
-                    ValueRange newRow = link.buildRow(updatedRow);
-                    link.updateRange(updateRange, newRow);
+                    database.update(sc.getMember().getId(), updatedRow);
 
                     String cmd = sc.getSubcommandName();
                     editMessage(sc, "Your " + cmd + " has been updated to `"
@@ -749,13 +710,11 @@ public class Profile implements Command {
         sc.deferReply(true).queue();
 
         try {
-            GoogleSheetsAPI link = new GoogleSheetsAPI(spreadsheetID);
-            TreeMap<Object, Object> database = link.readSection(sc, TAB);
+            ProfileDatabase database = ProfileDatabase.getInstance();
 
             String userID = sc.getMember().getId();
-            if (database.containsKey(userID)) {
-                PlayerInfo profile = lookup(userID, database);
-                link.deleteRow(TAB, profile.getSpreadsheetPosition());
+            if (database.lookup(userID) != null) {
+                database.delete(userID);
 
                 editMessage(sc, "Your MIT profile has been deleted.");
                 log("Profile deleted for " + sc.getUser().getAsTag()
@@ -0,0 +1,410 @@
+package bot.Engine.Profiles;
+
+import bot.Config;
+import bot.Tools.GoogleSheetsAPI;
+import bot.Tools.SectionIndex;
+import bot.Tools.SheetSnapshot;
+import bot.Tools.TabSync;
+
+import com.google.api.services.sheets.v4.model.ValueRange;
+
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author  Wil Aquino
+ * Date:    August 3, 2022
+ * Project: Libra
+ * Module:  ProfileDatabase.java
+ * Purpose: Keeps the profiles spreadsheet resident in memory,
+ *          writing through to the spreadsheet on changes.
+ */
+public class ProfileDatabase {
+
+    /** Google Sheets ID of the profiles spreadsheet. */
+    private static final String spreadsheetID = Config.mitProfilesSheetID;
+
+    /** The spreadsheet's starting column with profile information. */
+    private static final String START_COLUMN = "B";
+
+    /** The spreadsheet's ending column with profile information. */
+    private static final String END_COLUMN = "I";
+
+    /** The tab name of the spreadsheet. */
+    private static final String TAB = "Profiles";
+
+    /** Minutes between each check for changes made directly to the spreadsheet. */
+    private static final int RECONCILE_MINUTES = 5;
+
+    /** The number of profiles within each block compared during a check. */
+    private static final int BLOCK_ROWS = 100;
+
+    /**
+     * The most minutes a profile edited directly within the spreadsheet
+     * (rather than added, moved or removed) can go unnoticed.
+     */
+    private static final int STALE_MINUTES = 30;
+
+    /** The directory holding the saved copy of the profiles. */
+    private static final String SNAPSHOT_DIRECTORY = "snapshots";
+
+    /** The file holding the saved copy of the profiles. */
+    private static final String SNAPSHOT_FILE = "profiles.dat";
+
+    /** The only instance of the database. */
+    private static ProfileDatabase instance;
+
+    /** Players' profiles, indexed by Discord ID. */
+    private final Map<String, PlayerInfo> profiles;
+
+    /** Discord IDs of the profiles, in the order of their rows. */
+    private final List<String> rowIDs;
+
+    /** The local copy of the spreadsheet tab, for finding outside changes. */
+    private final TabSync<PlayerInfo> sync;
+
+    /** The saved copy of the profiles, for loading them after a restart. */
+    private final SheetSnapshot snapshot;
+
+    /** Flag for checking whether the profiles have been loaded or not. */
+    private boolean loaded;
+
+    /** Flag for whether the profiles changed since they were last saved. */
+    private boolean snapshotDirty;
+
+    /** The number of writes made, for spotting writes during a reload. */
+    private long numWrites;
+
+    /** Constructs the (empty) profile database. */
+    private ProfileDatabase() {
+        profiles = new ConcurrentHashMap<>();
+        rowIDs = new ArrayList<>();
+        sync = new TabSync<>(TAB, PlayerInfo.SCHEMA, BLOCK_ROWS,
+                STALE_MINUTES / RECONCILE_MINUTES);
+        snapshot = new SheetSnapshot(
+                Paths.get(SNAPSHOT_DIRECTORY, SNAPSHOT_FILE), true);
+        loaded = false;
+        snapshotDirty = false;
+        numWrites = 0;
+    }
+
+    /** Retrieves the profile database. */
+    public static synchronized ProfileDatabase getInstance() {
+        if (instance == null) {
+            instance = new ProfileDatabase();
+        }
+
+        return instance;
+    }
+
+    /**
+     * Loads the profiles and begins checking the spreadsheet
+     * for outside changes in the background.
+     *
+     * Note: If the profiles were saved before the last shutdown, they are
+     *       loaded from disk right away and checked against the
+     *       spreadsheet in the background instead.
+     */
+    public void start() {
+        ScheduledExecutorService reconciler =
+                Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "profiles-reconciler");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        if (restore()) {
+            reconciler.execute(this::revalidate);
+        } else {
+            try {
+                load();
+            } catch (IOException | GeneralSecurityException e) {
+                LoggerFactory.getLogger(this.getClass())
+                        .error("The profiles spreadsheet could not load.");
+            }
+        }
+
+        reconciler.scheduleWithFixedDelay(this::reconcile,
+                RECONCILE_MINUTES, RECONCILE_MINUTES, TimeUnit.MINUTES);
+    }
+
+    /** Retrieves the connection to the profiles spreadsheet. */
+    private GoogleSheetsAPI getLink()
+            throws IOException, GeneralSecurityException {
+        return GoogleSheetsAPI.getLink(spreadsheetID);
+    }
+
+    /**
+     * Downloads every profile from the spreadsheet, replacing
+     * the ones held in memory.
+     */
+    private void load() throws IOException, GeneralSecurityException {
+        long writesBefore;
+        synchronized (this) {
+            writesBefore = numWrites;
+        }
+
+        applyChanges(sync.load(getLink()), writesBefore);
+    }
+
+    /**
+     * Loads the profiles saved before the last shutdown.
+     * @return True if the profiles were loaded.
+     *         False otherwise.
+     */
+    private synchronized boolean restore() {
+        try {
+            List<List<Object>> rows = snapshot.load();
+            if (rows == null) {
+                return false;
+            }
+
+            applyChanges(sync.restore(rows), numWrites);
+            snapshotDirty = false;
+            return true;
+        } catch (IOException e) {
+            LoggerFactory.getLogger(this.getClass())
+                    .warn("The saved profiles could not be read.");
+            return false;
+        }
+    }
+
+    /**
+     * Downloads every profile again after loading the saved ones,
+     * catching any changes made while the bot was offline.
+     */
+    private void revalidate() {
+        try {
+            load();
+        } catch (IOException | GeneralSecurityException e) {
+            LoggerFactory.getLogger(this.getClass())
+                    .error("The saved profiles could not be checked.");
+        }
+    }
+
+    /**
+     * Applies the changes found within the spreadsheet to the profiles.
+     * @param changes the changed profiles.
+     * @param writesBefore the number of writes made before the
+     *                     changes were downloaded.
+     */
+    private synchronized void applyChanges(TabSync.Changes<PlayerInfo> changes,
+                                           long writesBefore) {
+        if (loaded && writesBefore != numWrites) {
+            // one of our own writes landed mid-download; try again later
+            sync.invalidate();
+            return;
+        }
+
+        if (changes.isFullReload()) {
+            // keep serving the old profiles until they are replaced
+            profiles.keySet().retainAll(changes.getChanged().keySet());
+        }
+        for (String id : changes.getRemoved()) {
+            profiles.remove(id);
+        }
+        profiles.putAll(changes.getChanged());
+
+        if (!changes.getChanged().isEmpty() || !changes.getRemoved().isEmpty()) {
+            snapshotDirty = true;
+        }
+
+        SectionIndex<PlayerInfo> data = changes.getIndex();
+        rowIDs.clear();
+        for (int i = 0; i < data.size(); i++) {
+            rowIDs.add(data.getIDAt(i));
+        }
+
+        loaded = true;
+    }
+
+    /** Loads the profiles if they have not been loaded yet. */
+    private void ensureLoaded() throws IOException, GeneralSecurityException {
+        boolean needsLoad;
+        synchronized (this) {
+            needsLoad = !loaded;
+        }
+
+        if (needsLoad) {
+            load();
+        }
+    }
+
+    /**
+     * Checks the spreadsheet for profiles which were added, edited,
+     * moved or removed outside the bot, updating only those profiles.
+     *
+     * Note: Only the Discord ID column and the blocks of rows which
+     *       might have changed are downloaded for the check, along with
+     *       enough other blocks that every profile is downloaded again
+     *       within STALE_MINUTES.
+     */
+    private void reconcile() {
+        try {
+            long writesBefore;
+            synchronized (this) {
+                writesBefore = numWrites;
+            }
+
+            applyChanges(sync.refresh(getLink()), writesBefore);
+        } catch (IOException | GeneralSecurityException e) {
+            LoggerFactory.getLogger(this.getClass())
+                    .error("The profiles spreadsheet could not be checked.");
+        }
+
+        saveSnapshot();
+    }
+
+    /**
+     * Saves the profiles to disk if they changed since they were
+     * last saved, so they can be loaded right away after a restart.
+     *
+     * Note: Each profile is saved at its spreadsheet row, with empty
+     *       rows in between, so the rows match the spreadsheet's.
+     */
+    public void saveSnapshot() {
+        List<List<Object>> rows = new ArrayList<>();
+        synchronized (this) {
+            if (!loaded || !snapshotDirty) {
+                return;
+            }
+
+            for (Map.Entry<String, PlayerInfo> mapping : profiles.entrySet()) {
+                int i = mapping.getValue().getSpreadsheetPosition() - 2;
+                while (rows.size() <= i) {
+                    rows.add(Collections.emptyList());
+                }
+
+                List<Object> row = new ArrayList<>();
+                row.add(mapping.getKey());
+                row.addAll(mapping.getValue().toRow());
+                rows.set(i, row);
+            }
+            snapshotDirty = false;
+        }
+
+        try {
+            snapshot.save(rows);
+        } catch (IOException e) {
+            synchronized (this) {
+                snapshotDirty = true;
+            }
+            LoggerFactory.getLogger(this.getClass())
+                    .error("The profiles could not be saved.");
+        }
+    }
+
+    /**
+     * Retrieves every profile, indexed by Discord ID.
+     * @return a read-only view of the profiles.
+     */
+    public Map<String, PlayerInfo> getProfiles()
+            throws IOException, GeneralSecurityException {
+        ensureLoaded();
+        return Collections.unmodifiableMap(profiles);
+    }
+
+    /**
+     * Looks up a player's profile.
+     * @param id the player's Discord ID.
+     * @return the player's profile.
+     *         null if it could not be found.
+     */
+    public PlayerInfo lookup(String id)
+            throws IOException, GeneralSecurityException {
+        ensureLoaded();
+        return profiles.get(id);
+    }
+
+    /**
+     * Adds a profile to the end of the spreadsheet.
+     * @param row the profile's row, starting with the player's Discord ID.
+     */
+    public synchronized void add(List<Object> row)
+            throws IOException, GeneralSecurityException {
+        ensureLoaded();
+
+        ValueRange newRow = getLink().buildRow(row);
+        int pos = getLink().appendRow(TAB, newRow);
+        if (pos == -1) {
+            pos = rowIDs.size() + 2;
+        }
+
+        String id = row.get(0).toString();
+        profiles.put(id, new PlayerInfo(null, pos,
+                new ArrayList<>(row.subList(1, row.size()))));
+        rowIDs.add(id);
+        numWrites++;
+        snapshotDirty = true;
+    }
+
+    /**
+     * Overwrites the information of an existing profile.
+     * @param id the player's Discord ID.
+     * @param row the profile's new information, starting from the player's
+     *            Discord tag. Columns past the end of the row are unchanged.
+     */
+    public synchronized void update(String id, List<Object> row)
+            throws IOException, GeneralSecurityException {
+        ensureLoaded();
+
+        PlayerInfo profile = profiles.get(id);
+        if (profile == null) {
+            throw new IOException("Profile " + id + " does not exist.");
+        }
+
+        int pos = profile.getSpreadsheetPosition();
+        String updateRange = getLink().buildRange(TAB,
+                START_COLUMN, pos, END_COLUMN, pos);
+        getLink().updateRange(updateRange, getLink().buildRow(row));
+
+        List<Object> newRow = profile.toRow();
+        for (int i = 0; i < row.size() && i < newRow.size(); i++) {
+            newRow.set(i, row.get(i));
+        }
+        profiles.put(id, new PlayerInfo(null, pos, newRow));
+        sync.invalidateRow(id);
+        numWrites++;
+        snapshotDirty = true;
+    }
+
+    /**
+     * Deletes a profile from the spreadsheet.
+     * @param id the player's Discord ID.
+     */
+    public synchronized void delete(String id)
+            throws IOException, GeneralSecurityException {
+        ensureLoaded();
+
+        PlayerInfo profile = profiles.get(id);
+        if (profile == null) {
+            return;
+        }
+
+        int pos = profile.getSpreadsheetPosition();
+        getLink().deleteRow(TAB, pos);
+
+        profiles.remove(id);
+        rowIDs.remove(id);
+        for (Map.Entry<String, PlayerInfo> mapping : profiles.entrySet()) {
+            PlayerInfo other = mapping.getValue();
+            int otherPos = other.getSpreadsheetPosition();
+            if (otherPos > pos) {
+                mapping.setValue(new PlayerInfo(null, otherPos - 1, other.toRow()));
+            }
+        }
+        numWrites++;
+        snapshotDirty = true;
+    }
+}
@@ -38,6 +38,9 @@ public class Section {
     /** Private Top 10 Calculation Google Sheets ID. */
     private final String calculationsSheetID;
 
+    /** The minimum number of sets to be eligible for cycle points. */
+    private final int minimumSets;
+
     /** The tab to reference on the Cycles Google Sheet. */
     public static final String CYCLES_TAB = "Current Cycle";
 
@@ -63,6 +66,7 @@ public class Section {
                 gradSheetID = Config.fsGradSheetID;
                 cyclesSheetID = null;
                 calculationsSheetID = null;
+                minimumSets = 3;
                 break;
             case "lp":
                 name = "LaunchPoint";
@@ -72,6 +76,7 @@ public class Section {
                 gradSheetID = Config.lpGradSheetID;
                 cyclesSheetID = Config.lpCyclesSheetID;
                 calculationsSheetID = Config.lpCyclesCalculationSheetID;
+                minimumSets = 3;
                 break;
             default:
                 name = "Ink Odyssey";
@@ -81,6 +86,7 @@ public class Section {
                 gradSheetID = Config.ioGradSheetID;
                 cyclesSheetID = Config.ioCyclesSheetID;
                 calculationsSheetID = Config.ioCyclesCalculationSheetID;
+                minimumSets = 0;
                 break;
         }
     }
@@ -140,4 +146,12 @@ public class Section {
     public String calculationsSheetID() {
         return calculationsSheetID;
     }
+
+    /**
+     * Retrieves the minimum number of sets a player must play
+     * to be eligible for cycle points.
+     */
+    public int getMinimumSets() {
+        return minimumSets;
+    }
 }
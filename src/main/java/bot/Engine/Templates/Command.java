@@ -18,6 +18,9 @@ import org.slf4j.LoggerFactory;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author  Wil Aquino, Turtle#1504
@@ -76,6 +79,62 @@ public interface Command {
         }
     }
 
+    /**
+     * Retrieves several users at once given their Discord IDs,
+     * without blocking.
+     * @param interaction the user interaction calling this method.
+     * @param ids the Discord IDs of the users.
+     * @return the eventual users which could be found, indexed by Discord ID.
+     *
+     * Note: Users are taken from the member cache, and the rest are
+     *       requested from Discord together, in one request per
+     *       hundred users (the most Discord allows at once).
+     */
+    default CompletableFuture<Map<String, Member>> findMembersAsync(
+            GenericInteractionCreateEvent interaction, List<String> ids) {
+        Map<String, Member> foundMembers = new ConcurrentHashMap<>();
+
+        Guild server = interaction.getGuild();
+        if (server == null) {
+            log("Server link disconnected.", true);
+            return CompletableFuture.completedFuture(foundMembers);
+        }
+
+        List<String> uncached = new ArrayList<>();
+        for (String id : ids) {
+            Member member = server.getMemberById(id);
+            if (member == null) {
+                uncached.add(id);
+            } else {
+                foundMembers.put(id, member);
+            }
+        }
+
+        int batchSize = 100;
+        List<CompletableFuture<Void>> batches = new ArrayList<>();
+        for (int i = 0; i < uncached.size(); i += batchSize) {
+            List<String> batch = uncached.subList(i,
+                    Math.min(uncached.size(), i + batchSize));
+
+            CompletableFuture<Void> retrieved = new CompletableFuture<>();
+            server.retrieveMembersByIds(batch.toArray(new String[0]))
+                    .onSuccess(members -> {
+                        for (Member member : members) {
+                            foundMembers.put(member.getId(), member);
+                        }
+                        retrieved.complete(null);
+                    })
+                    .onError(e -> {
+                        log("A batch of users could not be found.", true);
+                        retrieved.complete(null);
+                    });
+            batches.add(retrieved);
+        }
+
+        return CompletableFuture.allOf(batches.toArray(new CompletableFuture<?>[0]))
+                .thenApply(done -> foundMembers);
+    }
+
     /**
      * Retrieves a role given its name.
      * @param interaction the user interaction calling this method.
@@ -107,13 +166,27 @@ public interface Command {
      */
     default void modifyRoles(GenericInteractionCreateEvent interaction,
                         String id, List<Role> toAdd, List<Role> toRemove) {
+        modifyRoles(interaction, findMember(interaction, id), toAdd, toRemove);
+    }
+
+    /**
+     * Modifies the roles of an already retrieved user.
+     * @param interaction the user interaction calling this method.
+     * @param user the user.
+     * @param toAdd the roles to add to the user.
+     * @param toRemove the roles to remove from the user.
+     *
+     * Note: Nothing is requested from Discord but the role change
+     *       itself, so this is safe to call from any thread.
+     */
+    default void modifyRoles(GenericInteractionCreateEvent interaction,
+                        Member user, List<Role> toAdd, List<Role> toRemove) {
         try {
             Guild server = interaction.getGuild();
             if (server == null) {
                 throw new NullPointerException("Server link disconnected.");
             }
 
-            Member user = findMember(interaction, id);
             if (user == null) {
                 throw new NullPointerException("Member could not be found.");
             }
@@ -101,8 +101,8 @@ public class Events extends ListenerAdapter {
      *         False otherwise.
      */
     private boolean isStaffCommand(SlashCommandEvent sc) {
-        String[] staffCmds = {"forceend", "log", "sub", "undo",
-                "add", "deny", "grad", "award", "cyclescalc"};
+        String[] staffCmds = {"forceend", "log", "sub", "bulklog", "undo", "redo",
+                "add", "deny", "grad", "award", "cyclescalc", "topten"};
 
         try {
             Guild server = sc.getGuild();
@@ -166,7 +166,8 @@ public class Events extends ListenerAdapter {
         boolean isDraftCommand =
                 subCmd.equals("startdraft") || subCmd.equals("forcesub") || subCmd.equals("forceend");
         boolean isReportCommand =
-                subCmd.equals("log") || subCmd.equals("sub") || subCmd.equals("undo");
+                subCmd.equals("log") || subCmd.equals("sub") || subCmd.equals("bulklog")
+                        || subCmd.equals("undo") || subCmd.equals("redo");
 
         boolean isHelpdesk = channel.equals(helpdesk);
         boolean inEntryChannel = (subCmd.equals("add") || subCmd.equals("deny") || subCmd.equals("grad"))
@@ -541,6 +542,9 @@ public class Events extends ListenerAdapter {
                         "Okayu_ded", 788682812991209492L, false)
                         .getAsMention()).queue();
                 break;
+            case "cyclescalc":
+                new CycleChange().runCmd(sc);
+                break;
         }
 
         if (subGroup.equals("profile")) {
@@ -598,6 +602,12 @@ public class Events extends ListenerAdapter {
             case "cyclescalc":
                 new PointsCalculator(prefix).runCmd(sc);
                 break;
+            case "topten":
+                new TopTen(prefix).runCmd(sc);
+                break;
+            case "history":
+                new History(prefix).runCmd(sc);
+                break;
             case "genmaps":
                 MapGenerator maps = new MapGenerator(prefix,
                         notInAnotherDraft(sc, RANDOM_GENERATOR, drafts));
@@ -623,7 +633,11 @@ public class Events extends ListenerAdapter {
                     new ManualLog(prefix).runCmd(sc);
                 }
                 break;
+            case "bulklog":
+                new BulkLog(prefix).runCmd(sc);
+                break;
             case "undo":
+            case "redo":
                 new Undo(prefix).runCmd(sc);
                 break;
         }
@@ -1,5 +1,8 @@
 package bot;
 
+import bot.Engine.Cycles.CycleLedger;
+import bot.Engine.Profiles.ProfileDatabase;
+
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.JDABuilder;
 import net.dv8tion.jda.api.OnlineStatus;
@@ -170,8 +173,12 @@ public class Main {
                 "Reports draft scores for up to four players.");
         SubcommandData sub = new SubcommandData("sub",
                 "Reports draft scores for up to four players who subbed.");
+        SubcommandData bulklog = new SubcommandData("bulklog",
+                "Reports many sets at once, one per line or separated by semicolons.");
         SubcommandData undo = new SubcommandData("undo",
-                "Reverts the previous draft command, once and only once.");
+                "Reverts a recent draft command, the latest by default.");
+        SubcommandData redo = new SubcommandData("redo",
+                "Restores a reverted draft command, the latest by default.");
 
         SubcommandData add = new SubcommandData("add",
                 "Adds players into the designated area within MIT.");
@@ -182,6 +189,12 @@ public class Main {
 
         SubcommandData cycleCalculate = new SubcommandData("cyclescalc",
                 "Performs a cycle change for the MIT section.");
+        SubcommandData cycleCalculateAll = new SubcommandData("cyclescalc",
+                "Performs the cycle changes of every MIT section at once.");
+        SubcommandData topTen = new SubcommandData("topten",
+                "Shows the provisional Top 10 for the current MIT cycle.");
+        SubcommandData history = new SubcommandData("history",
+                "Shows a player's stats over the archived MIT cycles.");
         SubcommandData award = new SubcommandData("award",
                 "Gives players leaderboard awards for the current MIT cycle.");
 
@@ -193,6 +206,8 @@ public class Main {
         OptionData won = new OptionData(
                 OptionType.INTEGER, "won", "Total games won", true);
         log.addOptions(matches, won);
+        bulklog.addOptions(new OptionData(OptionType.STRING, "sets",
+                "Sets as: [log|sub] (games played) (games won) @players...", true));
         sub.addOptions(matches, won);
 
         OptionData maps = new OptionData(
@@ -208,6 +223,16 @@ public class Main {
         }
         award.addOptions(leaderboardAward);
 
+        OptionData entry = new OptionData(
+                OptionType.INTEGER, "entry", "Entry number of the draft command");
+        undo.addOptions(entry);
+        redo.addOptions(entry);
+
+        history.addOptions(
+                new OptionData(OptionType.USER, "player", "Tag of a player", true),
+                new OptionData(OptionType.INTEGER, "cycles",
+                        "Number of recent cycles to show"));
+
         // adding user parameters to any commands
         for (int i = 1; i <= numMentions; i++) {
             OptionData newMention;
@@ -236,7 +261,7 @@ public class Main {
 
         // implementing commands
         libra.addSubcommands(status, help);
-        mit.addSubcommands(qprofile, ded);
+        mit.addSubcommands(qprofile, ded, cycleCalculateAll);
         mit.addSubcommandGroups(profile);
         fs.addSubcommands(
                 genmaps,
@@ -245,15 +270,15 @@ public class Main {
         lp.addSubcommands(
                 genmaps, leaderboard,
                 startdraft, forcesub, forceend,
-                log, sub, undo,
+                log, sub, bulklog, undo, redo,
                 add, deny, grad,
-                cycleCalculate, award);
+                cycleCalculate, topTen, history, award);
         io.addSubcommands(
                 genmaps, leaderboard,
                 startdraft, forcesub, forceend,
-                log, sub, undo,
+                log, sub, bulklog, undo, redo,
                 add, deny, grad,
-                cycleCalculate, award);
+                cycleCalculate, topTen, history, award);
 
         jda.updateCommands().addCommands(libra, mit, fs, lp, io).queue();
     }
@@ -275,6 +300,13 @@ public class Main {
             // run only if all slash commands have not been implemented yet
             Main.implementSlashCommands(jda);
 
+            ProfileDatabase.getInstance().start();
+            CycleLedger.getInstance("lp").start();
+            CycleLedger.getInstance("io").start();
+            Runtime.getRuntime().addShutdownHook(new Thread(
+                    ProfileDatabase.getInstance()::saveSnapshot,
+                    "profiles-snapshot"));
+
             String status = "Splatoon 3";
             jda.getPresence().setPresence(
                     OnlineStatus.IDLE,
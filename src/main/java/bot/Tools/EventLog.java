@@ -0,0 +1,308 @@
+package bot.Tools;
+
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * @author  Wil Aquino
+ * Date:    August 13, 2022
+ * Project: Libra
+ * Module:  EventLog.java
+ * Purpose: Stores binary events in an append-only log of
+ *          memory-mapped segment files on local disk.
+ */
+public class EventLog {
+
+    /** The size of each segment file, in bytes. */
+    public static final int SEGMENT_SIZE = 1 << 20;
+
+    /**
+     * The size of a record's header (payload length and sequence
+     * number) and trailer (checksum), in bytes.
+     */
+    private static final int RECORD_OVERHEAD = Integer.BYTES + Long.BYTES + Integer.BYTES;
+
+    /** The file name format of the segments. */
+    private static final String SEGMENT_FORMAT = "segment-%06d.log";
+
+    /** The directory holding the segment files. */
+    private final Path directory;
+
+    /** The number of the segment being appended to. */
+    private int segmentNum;
+
+    /** The segment being appended to. */
+    private MappedByteBuffer segment;
+
+    /** The sequence number of the last stored event. */
+    private long lastSequence;
+
+    /**
+     * Reads a stored event.
+     */
+    public interface EventConsumer {
+
+        /**
+         * Reads a stored event.
+         * @param sequence the sequence number of the event.
+         * @param payload the contents of the event.
+         */
+        void accept(long sequence, ByteBuffer payload);
+    }
+
+    /**
+     * Opens the log within a directory, creating it if it
+     * does not exist yet.
+     * @param dir the directory to keep the segment files in.
+     */
+    public EventLog(Path dir) throws IOException {
+        directory = dir;
+        Files.createDirectories(directory);
+
+        lastSequence = 0;
+        segmentNum = 0;
+        recover();
+    }
+
+    /**
+     * Retrieves the path of a segment file.
+     * @param num the number of the segment.
+     */
+    private Path segmentPath(int num) {
+        return directory.resolve(String.format(SEGMENT_FORMAT, num));
+    }
+
+    /** Retrieves the numbers of the stored segments, in order. */
+    private List<Integer> listSegments() throws IOException {
+        List<Integer> nums = new ArrayList<>();
+        try (DirectoryStream<Path> files =
+                     Files.newDirectoryStream(directory, "segment-*.log")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                nums.add(Integer.parseInt(name.substring(8, name.length() - 4)));
+            }
+        }
+
+        Collections.sort(nums);
+        return nums;
+    }
+
+    /**
+     * Maps a segment file into memory, creating it if
+     * it does not exist yet.
+     * @param num the number of the segment.
+     */
+    private MappedByteBuffer mapSegment(int num) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(num),
+                StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_SIZE);
+        }
+    }
+
+    /**
+     * Calculates the checksum of a record.
+     * @param sequence the sequence number of the record.
+     * @param payload the contents of the record.
+     */
+    private static int checksum(long sequence, ByteBuffer payload) {
+        CRC32 crc = new CRC32();
+        ByteBuffer seq = ByteBuffer.allocate(Long.BYTES).putLong(0, sequence);
+        crc.update(seq);
+        crc.update(payload.duplicate());
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Reads the complete records of a segment, in order.
+     * @param buffer the segment to read, positioned at its start.
+     * @param end the position to stop reading at.
+     * @param consumer reads each event, if given.
+     * @return the sequence number of the last complete record.
+     *         0 if the segment has none.
+     *
+     * Note: The segment is left positioned after the last complete
+     *       record. A record which was only partly written before a crash
+     *       fails its checksum, so reading stops there.
+     */
+    private static long readSegment(ByteBuffer buffer, int end,
+                                    EventConsumer consumer) {
+        long sequence = 0;
+        while (end - buffer.position() >= RECORD_OVERHEAD) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            if (length <= 0 || length > end - start - RECORD_OVERHEAD) {
+                buffer.position(start);
+                break;
+            }
+
+            long recordSeq = buffer.getLong();
+            ByteBuffer payload = buffer.slice();
+            payload.limit(length);
+            buffer.position(buffer.position() + length);
+            if (buffer.getInt() != checksum(recordSeq, payload)) {
+                buffer.position(start);
+                break;
+            }
+
+            sequence = recordSeq;
+            if (consumer != null) {
+                consumer.accept(recordSeq, payload.asReadOnlyBuffer());
+            }
+        }
+
+        return sequence;
+    }
+
+    /**
+     * Finds the end of the log, discarding anything after
+     * the last complete record.
+     */
+    private synchronized void recover() throws IOException {
+        List<Integer> nums = listSegments();
+        if (nums.isEmpty()) {
+            segmentNum = 0;
+            segment = mapSegment(segmentNum);
+            return;
+        }
+
+        for (int i = 0; i < nums.size(); i++) {
+            MappedByteBuffer buffer = mapSegment(nums.get(i));
+            long sequence = readSegment(buffer, buffer.limit(), null);
+            if (sequence != 0) {
+                lastSequence = sequence;
+            }
+
+            boolean damaged = buffer.remaining() >= Integer.BYTES
+                    && buffer.getInt(buffer.position()) != 0;
+            if (damaged || i == nums.size() - 1) {
+                if (damaged) {
+                    LoggerFactory.getLogger(this.getClass()).error(
+                            "Event log " + segmentPath(nums.get(i)) + " is damaged "
+                                    + "after sequence " + lastSequence
+                                    + "; discarding the rest of the log.");
+                    for (int pos = buffer.position(); pos < buffer.limit(); pos++) {
+                        buffer.put(pos, (byte) 0);
+                    }
+                    buffer.force();
+
+                    for (int j = i + 1; j < nums.size(); j++) {
+                        Files.deleteIfExists(segmentPath(nums.get(j)));
+                    }
+                }
+
+                segmentNum = nums.get(i);
+                segment = buffer;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Reads every stored event in order.
+     * @param consumer reads each event.
+     */
+    public synchronized void readAll(EventConsumer consumer) throws IOException {
+        for (int num : listSegments()) {
+            ByteBuffer buffer;
+            try (FileChannel channel = FileChannel.open(segmentPath(num),
+                    StandardOpenOption.READ)) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+
+            int end = num == segmentNum ? segment.position() : buffer.limit();
+            readSegment(buffer, end, consumer);
+        }
+    }
+
+    /**
+     * Stores events at the end of the log, forcing them to disk
+     * before returning.
+     * @param payloads the contents of each event.
+     * @return the sequence number of the last stored event.
+     */
+    public synchronized long append(List<ByteBuffer> payloads) throws IOException {
+        for (ByteBuffer payload : payloads) {
+            int length = payload.remaining();
+            if (length + RECORD_OVERHEAD > SEGMENT_SIZE) {
+                throw new IOException("Event of " + length + " bytes is too large.");
+            } else if (length + RECORD_OVERHEAD > segment.remaining()) {
+                segment.force();
+                segmentNum++;
+                segment = mapSegment(segmentNum);
+            }
+
+            long sequence = lastSequence + 1;
+            segment.putInt(length)
+                    .putLong(sequence)
+                    .put(payload.duplicate())
+                    .putInt(checksum(sequence, payload));
+            lastSequence = sequence;
+        }
+
+        segment.force();
+        return lastSequence;
+    }
+
+    /**
+     * Retrieves the sequence number of a segment's first event.
+     * @param num the number of the segment.
+     * @return said sequence number.
+     *         0 if the segment has no events.
+     */
+    private long firstSequence(int num) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(num),
+                StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(Integer.BYTES + Long.BYTES);
+            while (header.hasRemaining()) {
+                if (channel.read(header) == -1) {
+                    return 0;
+                }
+            }
+
+            return header.getInt(0) <= 0 ? 0 : header.getLong(Integer.BYTES);
+        }
+    }
+
+    /**
+     * Deletes the segments holding only events before a given one,
+     * as happens once those events no longer matter.
+     * @param sequence the sequence number of the first event to keep.
+     * @return the number of segments deleted.
+     *
+     * Note: The segment being appended to is never deleted.
+     */
+    public synchronized int deleteBefore(long sequence) throws IOException {
+        List<Integer> nums = listSegments();
+        int deleted = 0;
+        for (int i = 0; i < nums.size() - 1; i++) {
+            // a segment only holds events before the next one's first event
+            long nextFirst = firstSequence(nums.get(i + 1));
+            if (nextFirst == 0 || nextFirst > sequence) {
+                break;
+            }
+
+            Files.deleteIfExists(segmentPath(nums.get(i)));
+            deleted++;
+        }
+
+        return deleted;
+    }
+
+    /** Retrieves the sequence number of the last stored event. */
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+}
@@ -0,0 +1,170 @@
+package bot.Tools;
+
+import com.google.api.services.sheets.v4.Sheets;
+import com.google.api.services.sheets.v4.Sheets.Spreadsheets.Values;
+import com.google.api.services.sheets.v4.model.AppendValuesResponse;
+import com.google.api.services.sheets.v4.model.BatchUpdateSpreadsheetRequest;
+import com.google.api.services.sheets.v4.model.BatchUpdateSpreadsheetResponse;
+import com.google.api.services.sheets.v4.model.BatchUpdateValuesRequest;
+import com.google.api.services.sheets.v4.model.ClearValuesRequest;
+import com.google.api.services.sheets.v4.model.Request;
+import com.google.api.services.sheets.v4.model.Sheet;
+import com.google.api.services.sheets.v4.model.SheetProperties;
+import com.google.api.services.sheets.v4.model.ValueRange;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author  Wil Aquino
+ * Date:    August 14, 2022
+ * Project: Libra
+ * Module:  GoogleSheetStorage.java
+ * Purpose: Stores a spreadsheet's values and tabs within
+ *          Google Sheets.
+ */
+public class GoogleSheetStorage implements SheetStorage {
+
+    /**
+     * Partial response mask for writes whose responses go unread, so
+     * Google only sends back the spreadsheet's ID.
+     */
+    private static final String MINIMAL_FIELDS = "spreadsheetId";
+
+    /** Partial response mask for a tab's ID, title and grid size. */
+    private static final String TAB_FIELDS =
+            "sheets.properties(sheetId,title,gridProperties(rowCount,columnCount))";
+
+    /** Field for a Google Sheets SDK link. */
+    private final Sheets sheetsService;
+
+    /** ID of the Google Sheet being used. */
+    private final String spreadsheetID;
+
+    /**
+     * Constructs the storage of a Google Sheet.
+     * @param service the Google Sheets SDK link to use.
+     * @param id the ID of the Google Sheet.
+     */
+    public GoogleSheetStorage(Sheets service, String id) {
+        sheetsService = service;
+        spreadsheetID = id;
+    }
+
+    /**
+     * Retrieves ALL of the spreadsheets' data (including all tabs).
+     */
+    private Values getSheet() {
+        return sheetsService.spreadsheets().values();
+    }
+
+    @Override
+    public List<List<Object>> getValues(String range) throws IOException {
+        return getSheet().get(spreadsheetID, range)
+                .setValueRenderOption("UNFORMATTED_VALUE")
+                .execute().getValues();
+    }
+
+    /**
+     * Retrieves several ranges of unformatted values in one request.
+     * @param ranges the ranges to retrieve, formatted as "'tab'!A1:B2".
+     * @param majorDimension "ROWS" or "COLUMNS", for how to group the values.
+     * @return the values of each range, in order.
+     */
+    private List<ValueRange> batchGet(List<String> ranges, String majorDimension)
+            throws IOException {
+        List<ValueRange> valueRanges = getSheet()
+                .batchGet(spreadsheetID)
+                .setRanges(ranges)
+                .setMajorDimension(majorDimension)
+                .setValueRenderOption("UNFORMATTED_VALUE")
+                .setFields("valueRanges/values")
+                .execute().getValueRanges();
+        if (valueRanges == null) {
+            return new ArrayList<>();
+        }
+
+        return valueRanges;
+    }
+
+    @Override
+    public List<ValueRange> getRows(List<String> ranges) throws IOException {
+        return batchGet(ranges, "ROWS");
+    }
+
+    @Override
+    public List<ValueRange> getColumns(List<String> ranges) throws IOException {
+        return batchGet(ranges, "COLUMNS");
+    }
+
+    @Override
+    public List<SheetProperties> getTabs() throws IOException {
+        List<Sheet> allSheets = sheetsService.spreadsheets()
+                .get(spreadsheetID)
+                .setFields(TAB_FIELDS)
+                .execute().getSheets();
+
+        List<SheetProperties> tabs = new ArrayList<>();
+        if (allSheets != null) {
+            for (Sheet sheet : allSheets) {
+                tabs.add(sheet.getProperties());
+            }
+        }
+
+        return tabs;
+    }
+
+    @Override
+    public BatchUpdateSpreadsheetResponse batchUpdate(Request req, String fields)
+            throws IOException {
+        BatchUpdateSpreadsheetRequest batchReq = new BatchUpdateSpreadsheetRequest();
+        batchReq.setRequests(Collections.singletonList(req));
+
+        return sheetsService.spreadsheets()
+                .batchUpdate(spreadsheetID, batchReq)
+                .setFields(fields)
+                .execute();
+    }
+
+    @Override
+    public String append(String tab, ValueRange rows) throws IOException {
+        AppendValuesResponse response = getSheet()
+                .append(spreadsheetID, String.format("'%s'", tab), rows)
+                .setValueInputOption("USER_ENTERED")
+                .setInsertDataOption("INSERT_ROWS")
+                .setFields("updates/updatedRange")
+                .execute();
+        if (response.getUpdates() == null) {
+            return null;
+        }
+
+        return response.getUpdates().getUpdatedRange();
+    }
+
+    @Override
+    public void update(String range, ValueRange values) throws IOException {
+        getSheet().update(spreadsheetID, range, values)
+                .setValueInputOption("USER_ENTERED")
+                .setFields(MINIMAL_FIELDS)
+                .execute();
+    }
+
+    @Override
+    public void updateAll(List<ValueRange> values) throws IOException {
+        BatchUpdateValuesRequest batchReq = new BatchUpdateValuesRequest()
+                .setValueInputOption("USER_ENTERED")
+                .setData(values);
+        getSheet().batchUpdate(spreadsheetID, batchReq)
+                .setFields(MINIMAL_FIELDS)
+                .execute();
+    }
+
+    @Override
+    public void clear(String range) throws IOException {
+        getSheet().clear(spreadsheetID, range, new ClearValuesRequest())
+                .setFields(MINIMAL_FIELDS)
+                .execute();
+    }
+}
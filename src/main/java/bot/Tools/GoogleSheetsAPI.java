@@ -1,8 +1,6 @@
 package bot.Tools;
 
 import bot.Main;
-import bot.Engine.Profiles.PlayerInfo;
-import bot.Engine.Cycles.PlayerStats;
 
 import com.google.api.client.auth.oauth2.Credential;
 import com.google.api.client.extensions.java6.auth.oauth2.AuthorizationCodeInstalledApp;
@@ -10,11 +8,11 @@ import com.google.api.client.extensions.jetty.auth.oauth2.LocalServerReceiver;
 import com.google.api.client.googleapis.auth.oauth2.GoogleAuthorizationCodeFlow;
 import com.google.api.client.googleapis.auth.oauth2.GoogleClientSecrets;
 import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
+import com.google.api.client.http.HttpResponseException;
 import com.google.api.client.http.javanet.NetHttpTransport;
 import com.google.api.client.json.gson.GsonFactory;
 import com.google.api.client.util.store.FileDataStoreFactory;
 import com.google.api.services.sheets.v4.Sheets;
-import com.google.api.services.sheets.v4.Sheets.Spreadsheets.Values;
 import com.google.api.services.sheets.v4.SheetsScopes;
 import com.google.api.services.sheets.v4.model.*;
 import net.dv8tion.jda.api.events.interaction.GenericInteractionCreateEvent;
@@ -29,8 +27,20 @@ import java.io.InputStreamReader;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.TreeMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.security.GeneralSecurityException;
 
 /**
@@ -43,20 +53,147 @@ import java.security.GeneralSecurityException;
  */
 public class GoogleSheetsAPI {
 
-    /** Field for a Google Sheets SDK link. */
-    private final Sheets sheetsService;
+    /** Google Sheets SDK link shared by every spreadsheet connection. */
+    private static Sheets sharedService;
+
+    /** Connections to each spreadsheet, indexed by spreadsheet ID. */
+    private static final Map<String, GoogleSheetsAPI> links =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Creates the storage of each newly linked spreadsheet.
+     * null to store spreadsheets within Google Sheets.
+     */
+    private static Function<String, SheetStorage> storageFactory;
+
+    /** The storage holding the spreadsheet's values and tabs. */
+    private final SheetStorage storage;
 
     /** ID of the Google Sheet being used. */
     private final String spreadsheetID;
 
+    /**
+     * Partial response mask for writes whose responses go unread, so
+     * Google only sends back the spreadsheet's ID.
+     */
+    private static final String MINIMAL_FIELDS = "spreadsheetId";
+
+    /** Partial response mask for a tab's ID, title and grid size. */
+    private static final String TAB_FIELDS =
+            "properties(sheetId,title,gridProperties(rowCount,columnCount))";
+
+    /** Pattern for finding the first row number of a formatted range. */
+    private static final Pattern RANGE_START_ROW =
+            Pattern.compile("![A-Z]*(\\d+)");
+
+    /**
+     * Read and write requests allowed per minute, for the whole project.
+     *
+     * Note: The bot acts as a single user, so Google's per-user quota
+     *       is the one which applies to every spreadsheet combined.
+     */
+    private static final int PROJECT_REQUESTS_PER_MINUTE = 60;
+
+    /**
+     * Read and write requests allowed per minute, for one spreadsheet,
+     * so a busy spreadsheet cannot use up the whole project's quota.
+     */
+    private static final int SPREADSHEET_REQUESTS_PER_MINUTE = 40;
+
+    /** The most times a failed request is retried. */
+    private static final int MAX_RETRIES = 5;
+
+    /** The initial wait before retrying a failed request, in milliseconds. */
+    private static final long INITIAL_BACKOFF = 1000;
+
+    /** The longest wait before retrying a failed request, in milliseconds. */
+    private static final long MAX_BACKOFF = 32000;
+
+    /** Read and write request limits for the whole project. */
+    private static final RateLimiter projectReads =
+            new RateLimiter(PROJECT_REQUESTS_PER_MINUTE, PROJECT_REQUESTS_PER_MINUTE);
+    private static final RateLimiter projectWrites =
+            new RateLimiter(PROJECT_REQUESTS_PER_MINUTE, PROJECT_REQUESTS_PER_MINUTE);
+
+    /** Read and write request limits for this spreadsheet. */
+    private final RateLimiter reads;
+    private final RateLimiter writes;
+
+    /** The most asynchronous requests which can run at once. */
+    private static final int IO_THREADS = 4;
+
+    /** The most asynchronous requests which can wait for a thread. */
+    private static final int IO_QUEUE_CAPACITY = 256;
+
+    /**
+     * Threads running asynchronous requests for every spreadsheet,
+     * so Google's response times never hold up Discord's event thread.
+     */
+    private static final ThreadPoolExecutor ioExecutor = newIOExecutor();
+
+    /**
+     * Properties (ID, title and grid size) of the spreadsheet's tabs,
+     * indexed by title.
+     * null until the tabs are first looked up.
+     */
+    private Map<String, SheetProperties> tabs;
+
     /**
      * Constructs a connection with a spreadsheet based on a provided
      * Google Sheet's ID.
+     * @param sheetStorage the storage holding the spreadsheet.
      * @param id the ID of the Google Sheet.
      */
-    public GoogleSheetsAPI(String id) throws IOException, GeneralSecurityException {
-        sheetsService = getSheetsService();
+    private GoogleSheetsAPI(SheetStorage sheetStorage, String id) {
+        storage = sheetStorage;
         spreadsheetID = id;
+        reads = new RateLimiter(SPREADSHEET_REQUESTS_PER_MINUTE,
+                SPREADSHEET_REQUESTS_PER_MINUTE);
+        writes = new RateLimiter(SPREADSHEET_REQUESTS_PER_MINUTE,
+                SPREADSHEET_REQUESTS_PER_MINUTE);
+    }
+
+    /**
+     * Retrieves the connection with a spreadsheet based on a provided
+     * Google Sheet's ID, creating it the first time it is asked for.
+     * @param id the ID of the Google Sheet.
+     * @return the connection to the spreadsheet.
+     *
+     * Note: Every connection shares the same HTTP transport, credential
+     *       and Sheets service, so only the first call pays for setting
+     *       them up.
+     */
+    public static GoogleSheetsAPI getLink(String id)
+            throws IOException, GeneralSecurityException {
+        GoogleSheetsAPI link = links.get(id);
+        if (link == null) {
+            Function<String, SheetStorage> factory = storageFactory;
+            if (factory == null) {
+                Sheets service = getSheetsService();
+                factory = newID -> new GoogleSheetStorage(service, newID);
+            }
+
+            Function<String, SheetStorage> finalFactory = factory;
+            link = links.computeIfAbsent(id,
+                    newID -> new GoogleSheetsAPI(finalFactory.apply(newID), newID));
+        }
+
+        return link;
+    }
+
+    /**
+     * Stores every spreadsheet linked from now on somewhere other than
+     * Google Sheets, such as a LocalSheetStorage for benchmarks.
+     * @param factory creates the storage of a spreadsheet from its ID.
+     *                null to go back to Google Sheets.
+     *
+     * Note: Existing connections are dropped, so the next link to each
+     *       spreadsheet uses the new storage.
+     */
+    public static synchronized void setStorageFactory(
+            Function<String, SheetStorage> factory) {
+        storageFactory = factory;
+        links.clear();
     }
 
     /**
@@ -69,7 +206,7 @@ public class GoogleSheetsAPI {
      *       made using Google Sheets. See the following link for more information:
      *       https://developers.google.com/workspace/guides/create-credentials
      */
-    private Credential getCredential(NetHttpTransport httpTransport)
+    private static Credential getCredential(NetHttpTransport httpTransport)
             throws IOException {
         // disable Google API warning
         final java.util.logging.Logger buggyLogger =
@@ -104,22 +241,171 @@ public class GoogleSheetsAPI {
     }
 
     /**
-     * Constructs the Google Sheets service link.
+     * Retrieves the Google Sheets service link, constructing it
+     * if it does not exist yet.
      * @return the service link.
+     *
+     * Note: The credential refreshes its access token by itself once the
+     *       token is about to expire, so the link can be held for the
+     *       lifetime of the bot.
      */
-    private Sheets getSheetsService()
+    private static synchronized Sheets getSheetsService()
             throws IOException, GeneralSecurityException {
-        NetHttpTransport httpTransport = GoogleNetHttpTransport.newTrustedTransport();
-        return new Sheets.Builder(httpTransport, GsonFactory.getDefaultInstance(), getCredential(httpTransport))
-                .setApplicationName(Main.NAME)
-                .build();
+        if (sharedService == null) {
+            NetHttpTransport httpTransport = GoogleNetHttpTransport.newTrustedTransport();
+            sharedService = new Sheets.Builder(httpTransport, GsonFactory.getDefaultInstance(), getCredential(httpTransport))
+                    .setApplicationName(Main.NAME)
+                    .build();
+        }
+
+        return sharedService;
     }
 
     /**
-     * Retrieves ALL of the spreadsheets' data (including all tabs).
+     * Checks whether a failed request is worth retrying or not.
+     * @param e the error of the request.
+     * @param isIdempotent True if repeating the request changes nothing more.
+     *                     False otherwise.
+     * @return True if the request was rate limited, or if Google had a
+     *         server error and the request can safely be repeated.
+     *         False otherwise.
+     *
+     * Note: A server error can come back after Google already applied
+     *       the request, so repeating an append would duplicate its rows.
      */
-    public Values getSheet() {
-        return sheetsService.spreadsheets().values();
+    private static boolean isRetryable(IOException e, boolean isIdempotent) {
+        if (e instanceof HttpResponseException) {
+            int status = ((HttpResponseException) e).getStatusCode();
+            return status == 429 || (isIdempotent && status >= 500);
+        }
+
+        return false;
+    }
+
+    /**
+     * Executes a request to Google Sheets, staying within the request
+     * quotas and retrying with exponential backoff if it fails from
+     * rate limiting or a server error.
+     * @param request the request to execute.
+     * @param isWrite True if the request modifies the spreadsheet.
+     *                False otherwise.
+     * @param isIdempotent True if repeating the request changes nothing more.
+     *                     False otherwise.
+     * @return the response of the request.
+     */
+    private <T> T execute(SheetsCall<T> request, boolean isWrite,
+                          boolean isIdempotent) throws IOException {
+        RateLimiter projectLimit = isWrite ? projectWrites : projectReads;
+        RateLimiter sheetLimit = isWrite ? writes : reads;
+
+        try {
+            for (int attempt = 0; ; attempt++) {
+                sheetLimit.acquire();
+                projectLimit.acquire();
+
+                try {
+                    return request.call();
+                } catch (IOException e) {
+                    if (attempt >= MAX_RETRIES || !isRetryable(e, isIdempotent)) {
+                        throw e;
+                    }
+
+                    long backoff = Math.min(MAX_BACKOFF, INITIAL_BACKOFF << attempt);
+                    long jitter = ThreadLocalRandom.current().nextLong(INITIAL_BACKOFF);
+                    LoggerFactory.getLogger(GoogleSheetsAPI.class).warn(
+                            "Google Sheets request failed, retrying in "
+                                    + (backoff + jitter) + " ms.");
+                    Thread.sleep(backoff + jitter);
+                }
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting on Google Sheets.", ie);
+        }
+    }
+
+    /**
+     * A request to the spreadsheet's storage.
+     * @param <T> the type of the request's result.
+     */
+    @FunctionalInterface
+    private interface SheetsCall<T> {
+
+        /** Runs the request. */
+        T call() throws IOException;
+    }
+
+    /**
+     * Constructs the bounded pool of I/O threads.
+     *
+     * Note: Idle threads exit after a minute, and are daemons so they
+     *       never keep the bot from shutting down.
+     */
+    private static ThreadPoolExecutor newIOExecutor() {
+        AtomicInteger threadNum = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                IO_THREADS, IO_THREADS, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(IO_QUEUE_CAPACITY),
+                runnable -> {
+                    Thread thread = new Thread(runnable,
+                            "sheets-io-" + threadNum.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+
+        return executor;
+    }
+
+    /**
+     * Runs a request to Google Sheets on an I/O thread.
+     * @param call the request to run.
+     * @return the eventual result of the request, which fails with
+     *         the request's IOException if it could not be made.
+     *
+     * Note: If too many requests are already waiting, the result
+     *       fails right away instead of queueing without limit.
+     */
+    private static <T> CompletableFuture<T> async(SheetsCall<T> call) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            ioExecutor.execute(() -> {
+                try {
+                    future.complete(call.call());
+                } catch (IOException | RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(new IOException(
+                    "Too many Google Sheets requests are waiting.", e));
+        }
+
+        return future;
+    }
+
+    /**
+     * Retrieves the number of requests to this spreadsheet
+     * waiting on the request quotas.
+     */
+    public int getQueueDepth() {
+        return reads.getQueueDepth() + writes.getQueueDepth();
+    }
+
+    /**
+     * Retrieves the number of requests to every spreadsheet
+     * waiting on the project's request quotas.
+     */
+    public static int getProjectQueueDepth() {
+        return projectReads.getQueueDepth() + projectWrites.getQueueDepth();
+    }
+
+    /**
+     * Retrieves the number of asynchronous requests waiting
+     * for an I/O thread.
+     */
+    public static int getIOQueueDepth() {
+        return ioExecutor.getQueue().size();
     }
 
     /**
@@ -128,9 +414,88 @@ public class GoogleSheetsAPI {
      * @return said list of values.
      */
     public List<List<Object>> getSheetValues(String tab) throws IOException {
-        return getSheet().get(getSpreadsheetID(), String.format("'%s'", tab))
-                .setValueRenderOption("UNFORMATTED_VALUE")
-                .execute().getValues();
+        return execute(() -> storage.getValues(String.format("'%s'", tab)), false, true);
+    }
+
+    /**
+     * Retrieves a range of values from the spreadsheet.
+     * @param range the range to retrieve, formatted as "'tab'!A1:B2".
+     * @return said list of values.
+     *         an empty list if the range has no values.
+     */
+    public List<List<Object>> getRangeValues(String range) throws IOException {
+        List<List<Object>> values = execute(() -> storage.getValues(range), false, true);
+        if (values == null) {
+            return new ArrayList<>();
+        }
+
+        return values;
+    }
+
+    /**
+     * Retrieves several ranges of values from the spreadsheet
+     * in one request.
+     * @param ranges the ranges to retrieve, formatted as "'tab'!A1:B2".
+     * @return the values of each range, row by row, in order.
+     *         A range without values has an empty list.
+     */
+    public List<List<List<Object>>> getRangesValues(List<String> ranges)
+            throws IOException {
+        List<ValueRange> valueRanges = execute(() -> storage.getRows(ranges), false, true);
+
+        List<List<List<Object>>> values = new ArrayList<>(ranges.size());
+        for (int i = 0; i < ranges.size(); i++) {
+            List<List<Object>> rangeValues = null;
+            if (i < valueRanges.size()) {
+                rangeValues = valueRanges.get(i).getValues();
+            }
+
+            values.add(rangeValues == null ? new ArrayList<>() : rangeValues);
+        }
+
+        return values;
+    }
+
+    /**
+     * Retrieves selected columns of a tab from the spreadsheet,
+     * within a window of rows.
+     * @param tab the tab to retrieve data from.
+     * @param startRow the numbered row to start the window at.
+     * @param endRow the numbered row to end the window at.
+     *               -1 to read until the last row with values.
+     * @param columns the lettered columns to retrieve.
+     * @return the cells of the selected columns.
+     *
+     * Note: Every column is retrieved in one request, column by column,
+     *       so no other cells of the tab are downloaded.
+     */
+    public SheetColumns readColumns(String tab, int startRow, int endRow,
+                                    String... columns) throws IOException {
+        List<String> ranges = new ArrayList<>(columns.length);
+        for (String column : columns) {
+            String range = String.format("'%s'!%s%s:%s", tab, column, startRow, column);
+            if (endRow != -1) {
+                range += endRow;
+            }
+            ranges.add(range);
+        }
+
+        List<ValueRange> valueRanges = execute(() -> storage.getColumns(ranges), false, true);
+
+        Map<String, List<Object>> cells = new HashMap<>();
+        for (int i = 0; i < columns.length; i++) {
+            List<Object> column = Collections.emptyList();
+            if (valueRanges != null && i < valueRanges.size()) {
+                List<List<Object>> values = valueRanges.get(i).getValues();
+                if (values != null && !values.isEmpty()) {
+                    column = values.get(0);
+                }
+            }
+
+            cells.put(columns[i], column);
+        }
+
+        return new SheetColumns(startRow, cells);
     }
 
     /**
@@ -140,6 +505,45 @@ public class GoogleSheetsAPI {
         return spreadsheetID;
     }
 
+    /**
+     * Downloads the properties of every tab within the spreadsheet.
+     *
+     * Note: Only the tabs' IDs, titles and grid sizes are downloaded.
+     */
+    private synchronized void loadTabs() throws IOException {
+        List<SheetProperties> allTabs = execute(storage::getTabs, false, true);
+
+        Map<String, SheetProperties> newTabs = new ConcurrentHashMap<>();
+        for (SheetProperties properties : allTabs) {
+            newTabs.put(properties.getTitle(), properties);
+        }
+
+        tabs = newTabs;
+    }
+
+    /**
+     * Retrieves the properties of a tab within the spreadsheet.
+     * @param tab the specific tab of the spreadsheet.
+     * @return said properties.
+     *         null if the tab does not exist.
+     *
+     * Note: The tabs are only downloaded again if the tab is missing,
+     *       in case it was made outside the bot.
+     */
+    private synchronized SheetProperties getTab(String tab) throws IOException {
+        if (tabs == null) {
+            loadTabs();
+        }
+
+        SheetProperties properties = tabs.get(tab);
+        if (properties == null) {
+            loadTabs();
+            properties = tabs.get(tab);
+        }
+
+        return properties;
+    }
+
     /**
      * Retrieves the sheet ID for the spreadsheet's tab.
      * @param tab the specific tab of the spreadsheet.
@@ -147,39 +551,67 @@ public class GoogleSheetsAPI {
      *         -1, otherwise.
      */
     private int getSheetID(String tab) throws IOException {
-        List<Sheet> allSheets = sheetsService.spreadsheets()
-                .get(getSpreadsheetID()).execute().getSheets();
+        SheetProperties properties = getTab(tab);
+        if (properties == null) {
+            return -1;
+        }
 
-        for (Sheet sheet : allSheets) {
-            SheetProperties properties = sheet.getProperties();
-            if (tab.equals(properties.getTitle())) {
-                return properties.getSheetId();
-            }
+        return properties.getSheetId();
+    }
+
+    /**
+     * Checks whether a tab exists within the spreadsheet or not.
+     * @param tab the specific tab of the spreadsheet.
+     */
+    public boolean hasTab(String tab) throws IOException {
+        return getTab(tab) != null;
+    }
+
+    /**
+     * Retrieves the number of rows within a tab's grid, including
+     * empty rows.
+     * @param tab the specific tab of the spreadsheet.
+     * @return said number of rows.
+     *         -1 if the tab does not exist.
+     */
+    public int getRowCount(String tab) throws IOException {
+        SheetProperties properties = getTab(tab);
+        if (properties == null || properties.getGridProperties() == null) {
+            return -1;
         }
 
-        return -1;
+        return properties.getGridProperties().getRowCount();
     }
 
     /**
-     * Retrieves a specific type of row from the spreadsheet.
-     * @param interaction the user interaction calling this method.
+     * Adjusts the cached number of rows within a tab's grid.
      * @param tab the specific tab of the spreadsheet.
-     * @param i the current row in the spreadsheet, offset by 1.
-     * @param row the actual row of this entry.
-     * @return the classified row.
-     *         null otherwise.
-     */
-    private Object getSpecificRow(GenericInteractionCreateEvent interaction,
-                           String tab, int i, List<Object> row) {
-        if (tab.equals("Current Cycle")) {
-            return new PlayerStats(
-                    interaction, i + 1, row);
-        } else if (tab.equals("Profiles")) {
-            return new PlayerInfo(
-                    interaction, i + 1, row);
+     * @param change the number of rows added (or removed, if negative).
+     */
+    private synchronized void resizeTab(String tab, int change) {
+        if (tabs == null) {
+            return;
         }
 
-        return null;
+        SheetProperties properties = tabs.get(tab);
+        if (properties != null && properties.getGridProperties() != null) {
+            GridProperties grid = properties.getGridProperties();
+            grid.setRowCount(grid.getRowCount() + change);
+        }
+    }
+
+    /**
+     * Sends a single request which modifies the spreadsheet's structure.
+     * @param req the request to send.
+     * @param fields the partial response mask of the request.
+     * @param isIdempotent True if repeating the request changes nothing more.
+     *                     False otherwise.
+     * @return the response of the request.
+     */
+    private BatchUpdateSpreadsheetResponse batchUpdate(Request req, String fields,
+                                                       boolean isIdempotent)
+            throws IOException {
+        return execute(() -> storage.batchUpdate(req, fields), true, isIdempotent);
     }
 
     /**
@@ -187,30 +619,44 @@ public class GoogleSheetsAPI {
      * by the first column.
      * @param interaction the user interaction calling this method.
      * @param tab the name of the spreadsheet section.
-     * @return said section as a map, indexed by Discord ID.
-     *         null otherwise.
+     * @param schema the schema to decode each row with.
+     * @return said section, indexed by Discord ID in row order.
+     *
+     * Note: Only the columns up to the schema's last bound column
+     *       are downloaded.
      */
-    public TreeMap<Object, Object> readSection(
-            GenericInteractionCreateEvent interaction, String tab)
-            throws IOException {
-        List<List<Object>> values = getSheetValues(tab);
+    public <T> SectionIndex<T> readSection(
+            GenericInteractionCreateEvent interaction, String tab,
+            SheetSchema<T> schema) throws IOException {
+        List<List<Object>> values = getRangeValues(String.format(
+                "'%s'!A:%s", tab, schema.getLastColumn()));
 
-        TreeMap<Object, Object> data = new TreeMap<>();
-        if (!values.isEmpty()) {
-            for (int i = 1; i < values.size(); i++) {
-                List<Object> row = values.get(i);
-                Object id = row.remove(0);
-                Object rowType = getSpecificRow(interaction, tab, i, row);
-
-                data.put(id, rowType);
-            }
-        } else {
+        if (values.isEmpty()) {
             LoggerFactory.getLogger(this.getClass())
                     .error("The spreadsheet was empty.");
             throw new IOException();
         }
 
-        return data;
+        return schema.decode(interaction, values);
+    }
+
+    /**
+     * Streams the rows of a specific tab of the spreadsheet, one
+     * window of rows at a time.
+     * @param interaction the user interaction calling this method.
+     * @param tab the name of the spreadsheet section.
+     * @param schema the schema to decode each row with.
+     * @param windowRows the number of rows downloaded within each window.
+     * @return the decoded rows, in row order.
+     *
+     * Note: Only one window is held at a time, while the next one is
+     *       downloaded in the background, so the rows are never all
+     *       in memory at once.
+     */
+    public <T> SheetStream<T> streamSection(
+            GenericInteractionCreateEvent interaction, String tab,
+            SheetSchema<T> schema, int windowRows) {
+        return new SheetStream<>(this, interaction, tab, schema, windowRows);
     }
 
     /**
@@ -218,29 +664,27 @@ public class GoogleSheetsAPI {
      * @param tab the tab to rename.
      * @param name the new name of the tab.
      */
-    public void renameTab(String tab, String name)
-            throws IOException, GeneralSecurityException {
-        List<Sheet> allSheets = sheetsService.spreadsheets()
-                .get(getSpreadsheetID()).execute().getSheets();
-
-        for (Sheet sheet : allSheets) {
-            String title = sheet.getProperties().getTitle();
-            if (title.equals(tab)) {
-                SheetProperties properties = sheet.getProperties();
-                properties.setTitle(name);
+    public void renameTab(String tab, String name) throws IOException {
+        int sheetID = getSheetID(tab);
+        if (sheetID == -1) {
+            return;
+        }
 
-                UpdateSheetPropertiesRequest updateReq = new UpdateSheetPropertiesRequest();
-                updateReq.setFields("*").setProperties(properties);
+        SheetProperties properties = new SheetProperties()
+                .setSheetId(sheetID)
+                .setTitle(name);
 
-                Request req = new Request();
-                req.setUpdateSheetProperties(updateReq);
+        UpdateSheetPropertiesRequest updateReq = new UpdateSheetPropertiesRequest();
+        updateReq.setFields("title").setProperties(properties);
 
-                BatchUpdateSpreadsheetRequest batchReq = new BatchUpdateSpreadsheetRequest();
-                batchReq.setRequests(Collections.singletonList(req));
+        Request req = new Request();
+        req.setUpdateSheetProperties(updateReq);
+        batchUpdate(req, MINIMAL_FIELDS, true);
 
-                getSheetsService().spreadsheets()
-                        .batchUpdate(getSpreadsheetID(), batchReq).execute();
-                break;
+        synchronized (this) {
+            SheetProperties renamed = tabs.remove(tab);
+            if (renamed != null) {
+                tabs.put(name, renamed.setTitle(name));
             }
         }
     }
@@ -250,8 +694,7 @@ public class GoogleSheetsAPI {
      * @param tab the tab to duplicate.
      * @param name the name of the duplicated tab.
      */
-    public void duplicateTab(String tab, String name)
-            throws IOException, GeneralSecurityException {
+    public void duplicateTab(String tab, String name) throws IOException {
         int sheetID = getSheetID(tab);
         if (sheetID == -1) {
             throw new IOException();
@@ -263,11 +706,14 @@ public class GoogleSheetsAPI {
 
         Request req = new Request();
         req.setDuplicateSheet(dupeReq);
+        BatchUpdateSpreadsheetResponse response =
+                batchUpdate(req, "replies/duplicateSheet/" + TAB_FIELDS, false);
 
-        BatchUpdateSpreadsheetRequest batchReq = new BatchUpdateSpreadsheetRequest();
-        batchReq.setRequests(Collections.singletonList(req));
-        getSheetsService().spreadsheets()
-                .batchUpdate(getSpreadsheetID(), batchReq).execute();
+        SheetProperties properties =
+                response.getReplies().get(0).getDuplicateSheet().getProperties();
+        synchronized (this) {
+            tabs.put(properties.getTitle(), properties);
+        }
     }
 
     /**
@@ -289,7 +735,7 @@ public class GoogleSheetsAPI {
         if (sheetID == -1) {
             throw new IOException();
         }
-        gr.setSheetId(getSheetID(tab));
+        gr.setSheetId(sheetID);
         gr.setStartRowIndex(1);
         gr.setEndRowIndex(numRows + 1);
         gr.setStartColumnIndex(0);
@@ -301,10 +747,7 @@ public class GoogleSheetsAPI {
 
         Request req = new Request();
         req.setSortRange(srr);
-
-        BatchUpdateSpreadsheetRequest busReq = new BatchUpdateSpreadsheetRequest();
-        busReq.setRequests(Collections.singletonList(req));
-        sheetsService.spreadsheets().batchUpdate(getSpreadsheetID(), busReq).execute();
+        batchUpdate(req, MINIMAL_FIELDS, true);
     }
 
     /**
@@ -343,17 +786,46 @@ public class GoogleSheetsAPI {
         return new ValueRange().setValues(values);
     }
 
+    /**
+     * Builds a table consisting of rows of items.
+     * @param rows the rows of items to populate the table with.
+     */
+    public ValueRange buildTable(List<List<Object>> rows) {
+        return new ValueRange().setValues(rows);
+    }
+
+    /**
+     * Retrieves the first row number of a formatted range.
+     * @param range the range to parse, formatted as "'tab'!A1:B2".
+     * @return said row number.
+     *         -1 if the range has no row number.
+     */
+    private int parseStartRow(String range) {
+        if (range == null) {
+            return -1;
+        }
+
+        Matcher matcher = RANGE_START_ROW.matcher(range);
+        if (matcher.find()) {
+            return Integer.parseInt(matcher.group(1));
+        }
+
+        return -1;
+    }
+
     /**
      * Appends a row to the end of a spreadsheet.
      * @param tab the name of the spreadsheet tab to add to.
      * @param row the row of values to append.
+     * @return the numbered row the values were appended to.
+     *         -1 if it could not be determined.
      */
-    public void appendRow(String tab, ValueRange row)
+    public int appendRow(String tab, ValueRange row)
         throws IOException {
-        getSheet().append(getSpreadsheetID(), String.format("'%s'", tab), row)
-                .setValueInputOption("USER_ENTERED")
-                .setInsertDataOption("INSERT_ROWS")
-                .setIncludeValuesInResponse(true).execute();
+        String updatedRange = execute(() -> storage.append(tab, row), true, false);
+        resizeTab(tab, row.getValues().size());
+
+        return parseStartRow(updatedRange);
     }
 
     /**
@@ -363,9 +835,36 @@ public class GoogleSheetsAPI {
      */
     public void updateRange(String range, ValueRange values)
             throws IOException {
-        getSheet().update(getSpreadsheetID(), range, values)
-                .setValueInputOption("USER_ENTERED")
-                .setIncludeValuesInResponse(true).execute();
+        execute(() -> {
+            storage.update(range, values);
+            return null;
+        }, true, true);
+    }
+
+    /**
+     * Updates several ranges of values within a spreadsheet at once.
+     * @param values the values to update to, each carrying its own range.
+     */
+    public void updateRanges(List<ValueRange> values) throws IOException {
+        if (values.isEmpty()) {
+            return;
+        }
+
+        execute(() -> {
+            storage.updateAll(values);
+            return null;
+        }, true, true);
+    }
+
+    /**
+     * Clears a range of values within a spreadsheet.
+     * @param range the range of values to clear.
+     */
+    public void clearRange(String range) throws IOException {
+        execute(() -> {
+            storage.clear(range);
+            return null;
+        }, true, true);
     }
 
     /**
@@ -373,22 +872,175 @@ public class GoogleSheetsAPI {
      * @param tab the name of the spreadsheet tab to delete from.
      * @param row the numbered row to delete.
      */
-    public void deleteRow(String tab, int row)
-            throws IOException, GeneralSecurityException {
+    public void deleteRow(String tab, int row) throws IOException {
+        int sheetID = getSheetID(tab);
+        if (sheetID == -1) {
+            throw new IOException();
+        }
+
         DeleteDimensionRequest deleteReq = new DeleteDimensionRequest();
         deleteReq.setRange(new DimensionRange()
-                .setSheetId(getSheetID(tab))
+                .setSheetId(sheetID)
                 .setDimension("ROWS")
                 .setStartIndex(row - 1)
                 .setEndIndex(row));
 
         Request req = new Request();
         req.setDeleteDimension(deleteReq);
+        batchUpdate(req, MINIMAL_FIELDS, false);
+        resizeTab(tab, -1);
+    }
+
+    /**
+     * Retrieves a tab's data from the spreadsheet, without blocking.
+     * @param tab the tab to retrieve data from.
+     * @return the eventual list of values.
+     */
+    public CompletableFuture<List<List<Object>>> getSheetValuesAsync(String tab) {
+        return async(() -> getSheetValues(tab));
+    }
+
+    /**
+     * Retrieves a range of values from the spreadsheet, without blocking.
+     * @param range the range to retrieve, formatted as "'tab'!A1:B2".
+     * @return the eventual list of values.
+     */
+    public CompletableFuture<List<List<Object>>> getRangeValuesAsync(String range) {
+        return async(() -> getRangeValues(range));
+    }
+
+    /**
+     * Retrieves selected columns of a tab from the spreadsheet,
+     * within a window of rows, without blocking.
+     * @param tab the tab to retrieve data from.
+     * @param startRow the numbered row to start the window at.
+     * @param endRow the numbered row to end the window at.
+     *               -1 to read until the last row with values.
+     * @param columns the lettered columns to retrieve.
+     * @return the eventual cells of the selected columns.
+     */
+    public CompletableFuture<SheetColumns> readColumnsAsync(
+            String tab, int startRow, int endRow, String... columns) {
+        return async(() -> readColumns(tab, startRow, endRow, columns));
+    }
+
+    /**
+     * Retrieves a specific tab of the spreadsheet, indexing
+     * by the first column, without blocking.
+     * @param interaction the user interaction calling this method.
+     * @param tab the name of the spreadsheet section.
+     * @param schema the schema to decode each row with.
+     * @return the eventual section, indexed by Discord ID in row order.
+     */
+    public <T> CompletableFuture<SectionIndex<T>> readSectionAsync(
+            GenericInteractionCreateEvent interaction, String tab,
+            SheetSchema<T> schema) {
+        return async(() -> readSection(interaction, tab, schema));
+    }
+
+    /**
+     * Retrieves the number of rows within a tab's grid, without blocking.
+     * @param tab the specific tab of the spreadsheet.
+     * @return the eventual number of rows.
+     */
+    public CompletableFuture<Integer> getRowCountAsync(String tab) {
+        return async(() -> getRowCount(tab));
+    }
+
+    /**
+     * Renames a tab within the spreadsheet, without blocking.
+     * @param tab the tab to rename.
+     * @param name the new name of the tab.
+     */
+    public CompletableFuture<Void> renameTabAsync(String tab, String name) {
+        return async(() -> {
+            renameTab(tab, name);
+            return null;
+        });
+    }
+
+    /**
+     * Duplicates a tab within the spreadsheet, without blocking.
+     * @param tab the tab to duplicate.
+     * @param name the name of the duplicated tab.
+     */
+    public CompletableFuture<Void> duplicateTabAsync(String tab, String name) {
+        return async(() -> {
+            duplicateTab(tab, name);
+            return null;
+        });
+    }
+
+    /**
+     * Sorts a spreadsheet by descending values, without blocking.
+     * @param tab the spreadsheet tab to sort.
+     * @param column the column to sort by.
+     * @param numRows the number of rows to sort.
+     */
+    public CompletableFuture<Void> sortByDescendingAsync(String tab,
+                                                         String column,
+                                                         int numRows) {
+        return async(() -> {
+            sortByDescending(tab, column, numRows);
+            return null;
+        });
+    }
 
-        BatchUpdateSpreadsheetRequest batchReq = new BatchUpdateSpreadsheetRequest();
-        batchReq.setRequests(Collections.singletonList(req));
+    /**
+     * Appends a row to the end of a spreadsheet, without blocking.
+     * @param tab the name of the spreadsheet tab to add to.
+     * @param row the row of values to append.
+     * @return the eventual numbered row the values were appended to.
+     */
+    public CompletableFuture<Integer> appendRowAsync(String tab, ValueRange row) {
+        return async(() -> appendRow(tab, row));
+    }
 
-        getSheetsService().spreadsheets()
-                .batchUpdate(getSpreadsheetID(), batchReq).execute();
+    /**
+     * Updates a range of values within a spreadsheet, without blocking.
+     * @param range the range of values to update.
+     * @param values the values to update to.
+     */
+    public CompletableFuture<Void> updateRangeAsync(String range,
+                                                    ValueRange values) {
+        return async(() -> {
+            updateRange(range, values);
+            return null;
+        });
+    }
+
+    /**
+     * Updates several ranges of values within a spreadsheet at once,
+     * without blocking.
+     * @param values the values to update to, each carrying its own range.
+     */
+    public CompletableFuture<Void> updateRangesAsync(List<ValueRange> values) {
+        return async(() -> {
+            updateRanges(values);
+            return null;
+        });
+    }
+
+    /**
+     * Clears a range of values within a spreadsheet, without blocking.
+     * @param range the range of values to clear.
+     */
+    public CompletableFuture<Void> clearRangeAsync(String range) {
+        return async(() -> {
+            clearRange(range);
+            return null;
+        });
+    }
+
+    /**
+     * Deletes a row of values within a spreadsheet, without blocking.
+     * @param tab the name of the spreadsheet tab to delete from.
+     * @param row the numbered row to delete.
+     */
+    public CompletableFuture<Void> deleteRowAsync(String tab, int row) {
+        return async(() -> {
+            deleteRow(tab, row);
+            return null;
+        });
     }
 }
@@ -0,0 +1,750 @@
+package bot.Tools;
+
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.services.sheets.v4.model.BatchUpdateSpreadsheetResponse;
+import com.google.api.services.sheets.v4.model.DeleteDimensionRequest;
+import com.google.api.services.sheets.v4.model.DuplicateSheetRequest;
+import com.google.api.services.sheets.v4.model.DuplicateSheetResponse;
+import com.google.api.services.sheets.v4.model.GridProperties;
+import com.google.api.services.sheets.v4.model.GridRange;
+import com.google.api.services.sheets.v4.model.Request;
+import com.google.api.services.sheets.v4.model.Response;
+import com.google.api.services.sheets.v4.model.SheetProperties;
+import com.google.api.services.sheets.v4.model.SortRangeRequest;
+import com.google.api.services.sheets.v4.model.SortSpec;
+import com.google.api.services.sheets.v4.model.UpdateSheetPropertiesRequest;
+import com.google.api.services.sheets.v4.model.ValueRange;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * @author  Wil Aquino
+ * Date:    August 14, 2022
+ * Project: Libra
+ * Module:  LocalSheetStorage.java
+ * Purpose: Emulates a spreadsheet in memory, with optional
+ *          latency and quota errors, for running the bot's
+ *          spreadsheet work without a Google account.
+ */
+public class LocalSheetStorage implements SheetStorage {
+
+    /** The grid size of a new tab, as within Google Sheets. */
+    private static final int DEFAULT_ROWS = 1000, DEFAULT_COLUMNS = 26;
+
+    /** Pattern for a formatted range, such as "'tab'!A1:B2". */
+    private static final Pattern RANGE = Pattern.compile(
+            "^(?:'((?:[^']|'')*)'|([^!]+))"
+                    + "(?:!([A-Z]*)(\\d*)(?::([A-Z]*)(\\d*))?)?$");
+
+    /** The tabs of the spreadsheet, indexed by title in tab order. */
+    private final Map<String, Tab> tabs;
+
+    /** The ID of the next tab made. */
+    private int nextSheetID;
+
+    /** The fixed wait added to every request, in milliseconds. */
+    private long latency;
+
+    /** The most random wait added to every request, in milliseconds. */
+    private long jitter;
+
+    /** Requests allowed per minute before quota errors are returned, or 0 for no limit. */
+    private int requestsPerMinute;
+
+    /** The chance of any request failing with a quota error. */
+    private double quotaErrorRate;
+
+    /** The times of the requests made within the last minute, in nanoseconds. */
+    private final Deque<Long> recentRequests;
+
+    /**
+     * A tab of the emulated spreadsheet.
+     */
+    private static class Tab {
+
+        /** The ID of the tab. */
+        private final int sheetID;
+
+        /** The title of the tab. */
+        private String title;
+
+        /** The cells of the tab, row by row, with null for empty cells. */
+        private final List<List<Object>> rows;
+
+        /** The number of rows and columns within the tab's grid. */
+        private int rowCount, columnCount;
+
+        /**
+         * Constructs an empty tab.
+         * @param id the ID of the tab.
+         * @param name the title of the tab.
+         */
+        private Tab(int id, String name) {
+            sheetID = id;
+            title = name;
+            rows = new ArrayList<>();
+            rowCount = DEFAULT_ROWS;
+            columnCount = DEFAULT_COLUMNS;
+        }
+
+        /** Retrieves the tab's properties, as Google reports them. */
+        private SheetProperties getProperties() {
+            return new SheetProperties()
+                    .setSheetId(sheetID)
+                    .setTitle(title)
+                    .setGridProperties(new GridProperties()
+                            .setRowCount(rowCount)
+                            .setColumnCount(columnCount));
+        }
+
+        /**
+         * Retrieves a cell of the tab.
+         * @param row the row index of the cell.
+         * @param column the column index of the cell.
+         * @return said cell.
+         *         null if it is empty.
+         */
+        private Object get(int row, int column) {
+            if (row >= rows.size() || column >= rows.get(row).size()) {
+                return null;
+            }
+
+            return rows.get(row).get(column);
+        }
+
+        /**
+         * Sets a cell of the tab, growing the grid if needed.
+         * @param row the row index of the cell.
+         * @param column the column index of the cell.
+         * @param value the new value of the cell, or null to clear it.
+         */
+        private void set(int row, int column, Object value) {
+            while (rows.size() <= row) {
+                rows.add(new ArrayList<>());
+            }
+
+            List<Object> cells = rows.get(row);
+            while (cells.size() <= column) {
+                cells.add(null);
+            }
+            cells.set(column, value);
+
+            rowCount = Math.max(rowCount, row + 1);
+            columnCount = Math.max(columnCount, column + 1);
+        }
+
+        /**
+         * Retrieves the index of the last row with values.
+         * -1 if the tab is empty.
+         */
+        private int getLastRow() {
+            for (int i = rows.size() - 1; i >= 0; i--) {
+                for (Object cell : rows.get(i)) {
+                    if (!isEmpty(cell)) {
+                        return i;
+                    }
+                }
+            }
+
+            return -1;
+        }
+
+        /**
+         * Retrieves the index of the last column with values.
+         * -1 if the tab is empty.
+         */
+        private int getLastColumn() {
+            int last = -1;
+            for (List<Object> cells : rows) {
+                for (int i = cells.size() - 1; i > last; i--) {
+                    if (!isEmpty(cells.get(i))) {
+                        last = i;
+                        break;
+                    }
+                }
+            }
+
+            return last;
+        }
+    }
+
+    /**
+     * A parsed formatted range, with zero-based and inclusive bounds.
+     */
+    private static class Range {
+
+        /** The title of the tab. */
+        private String tab;
+
+        /** The first and last row and column indices of the range. */
+        private int startRow, startColumn, endRow, endColumn;
+    }
+
+    /**
+     * Constructs an empty spreadsheet without latency or quota errors.
+     */
+    public LocalSheetStorage() {
+        tabs = new LinkedHashMap<>();
+        nextSheetID = 0;
+        latency = 0;
+        jitter = 0;
+        requestsPerMinute = 0;
+        quotaErrorRate = 0.0;
+        recentRequests = new ArrayDeque<>();
+    }
+
+    /**
+     * Adds a wait to every request, as if it went over the network.
+     * @param millis the fixed wait, in milliseconds.
+     * @param jitterMillis the most random wait added on top, in milliseconds.
+     * @return this storage.
+     */
+    public LocalSheetStorage setLatency(long millis, long jitterMillis) {
+        latency = millis;
+        jitter = jitterMillis;
+        return this;
+    }
+
+    /**
+     * Fails requests with quota errors (HTTP 429) past a
+     * number of requests per minute.
+     * @param limit the requests allowed per minute, or 0 for no limit.
+     * @return this storage.
+     */
+    public LocalSheetStorage setQuota(int limit) {
+        requestsPerMinute = limit;
+        return this;
+    }
+
+    /**
+     * Fails a random share of requests with quota errors (HTTP 429).
+     * @param rate the chance of a request failing, from 0.0 to 1.0.
+     * @return this storage.
+     */
+    public LocalSheetStorage setQuotaErrorRate(double rate) {
+        quotaErrorRate = rate;
+        return this;
+    }
+
+    /**
+     * Adds a tab to the spreadsheet.
+     * @param title the title of the tab.
+     * @param values the starting cells of the tab, from cell A1.
+     * @return this storage.
+     */
+    public synchronized LocalSheetStorage addTab(String title,
+                                                 List<List<Object>> values) {
+        Tab tab = new Tab(nextSheetID++, title);
+        for (int i = 0; i < values.size(); i++) {
+            List<Object> row = values.get(i);
+            for (int j = 0; j < row.size(); j++) {
+                tab.set(i, j, row.get(j));
+            }
+        }
+
+        tabs.put(title, tab);
+        return this;
+    }
+
+    /**
+     * Checks whether a cell is empty or not.
+     * @param cell the cell to check.
+     */
+    private static boolean isEmpty(Object cell) {
+        return cell == null || cell.toString().isEmpty();
+    }
+
+    /**
+     * Converts a lettered column to its index.
+     * @param column the column to convert (i.e. "A" is 0).
+     * @param fallback the index to use if no column is given.
+     */
+    private static int columnIndex(String column, int fallback) {
+        if (column == null || column.isEmpty()) {
+            return fallback;
+        }
+
+        int index = 0;
+        for (int i = 0; i < column.length(); i++) {
+            index = index * 26 + (column.charAt(i) - 'A' + 1);
+        }
+
+        return index - 1;
+    }
+
+    /**
+     * Converts a column index to its lettered format.
+     * @param index the index to convert (i.e. 0 is "A").
+     */
+    private static String columnLetter(int index) {
+        StringBuilder column = new StringBuilder();
+        for (int i = index + 1; i > 0; i = (i - 1) / 26) {
+            column.insert(0, (char) ('A' + (i - 1) % 26));
+        }
+
+        return column.toString();
+    }
+
+    /**
+     * Converts a numbered row to its index.
+     * @param row the row to convert (i.e. "1" is 0).
+     * @param fallback the index to use if no row is given.
+     */
+    private static int rowIndex(String row, int fallback) {
+        if (row == null || row.isEmpty()) {
+            return fallback;
+        }
+
+        return Integer.parseInt(row) - 1;
+    }
+
+    /**
+     * Parses a formatted range.
+     * @param range the range to parse, formatted as "'tab'!A1:B2".
+     * @return the parsed range.
+     */
+    private static Range parseRange(String range) throws IOException {
+        Matcher matcher = RANGE.matcher(range);
+        if (!matcher.matches()) {
+            throw badRequest("Unable to parse range: " + range);
+        }
+
+        Range parsed = new Range();
+        parsed.tab = matcher.group(1) != null
+                ? matcher.group(1).replace("''", "'") : matcher.group(2);
+
+        if (matcher.group(3) == null) {
+            // the whole tab
+            parsed.startColumn = 0;
+            parsed.startRow = 0;
+            parsed.endColumn = Integer.MAX_VALUE;
+            parsed.endRow = Integer.MAX_VALUE;
+        } else if (matcher.group(5) == null) {
+            // a single cell
+            parsed.startColumn = columnIndex(matcher.group(3), 0);
+            parsed.startRow = rowIndex(matcher.group(4), 0);
+            parsed.endColumn = parsed.startColumn;
+            parsed.endRow = rowIndex(matcher.group(4), Integer.MAX_VALUE);
+        } else {
+            parsed.startColumn = columnIndex(matcher.group(3), 0);
+            parsed.startRow = rowIndex(matcher.group(4), 0);
+            parsed.endColumn = columnIndex(matcher.group(5), Integer.MAX_VALUE);
+            parsed.endRow = rowIndex(matcher.group(6), Integer.MAX_VALUE);
+        }
+
+        return parsed;
+    }
+
+    /**
+     * Builds the error Google returns for a malformed request.
+     * @param msg the reason the request failed.
+     */
+    private static IOException badRequest(String msg) {
+        return new HttpResponseException.Builder(400, msg, new HttpHeaders())
+                .setMessage(msg).build();
+    }
+
+    /**
+     * Retrieves a tab of the spreadsheet.
+     * @param title the title of the tab.
+     * @return said tab.
+     */
+    private Tab getTab(String title) throws IOException {
+        Tab tab = tabs.get(title);
+        if (tab == null) {
+            throw badRequest("Unable to parse range: " + title);
+        }
+
+        return tab;
+    }
+
+    /**
+     * Retrieves a tab of the spreadsheet by ID.
+     * @param sheetID the ID of the tab.
+     * @return said tab.
+     */
+    private Tab getTab(int sheetID) throws IOException {
+        for (Tab tab : tabs.values()) {
+            if (tab.sheetID == sheetID) {
+                return tab;
+            }
+        }
+
+        throw badRequest("No grid with id: " + sheetID);
+    }
+
+    /**
+     * Waits out the configured latency, then counts the request
+     * against the configured quota.
+     */
+    private void simulateRequest() throws IOException {
+        long wait = latency;
+        if (jitter > 0) {
+            wait += ThreadLocalRandom.current().nextLong(jitter + 1);
+        }
+
+        if (wait > 0) {
+            try {
+                Thread.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting on the spreadsheet.", e);
+            }
+        }
+
+        boolean overQuota;
+        synchronized (recentRequests) {
+            long now = System.nanoTime();
+            long windowStart = now - TimeUnit.MINUTES.toNanos(1);
+            while (!recentRequests.isEmpty() && recentRequests.peekFirst() < windowStart) {
+                recentRequests.pollFirst();
+            }
+
+            overQuota = requestsPerMinute > 0
+                    && recentRequests.size() >= requestsPerMinute;
+            if (!overQuota) {
+                recentRequests.addLast(now);
+            }
+        }
+
+        if (overQuota || ThreadLocalRandom.current().nextDouble() < quotaErrorRate) {
+            String msg = "Quota exceeded for quota metric 'Requests'.";
+            throw new HttpResponseException.Builder(429, msg, new HttpHeaders())
+                    .setMessage(msg).build();
+        }
+    }
+
+    /**
+     * Retrieves the cells of a range, as Google reports them.
+     * @param range the range to retrieve.
+     * @param byColumn True to group the cells column by column.
+     *                 False to group them row by row.
+     * @return said cells, without trailing empty rows, columns or cells.
+     *         null if the range has no values.
+     */
+    private List<List<Object>> readRange(Range range, boolean byColumn)
+            throws IOException {
+        Tab tab = getTab(range.tab);
+        int lastRow = Math.min(range.endRow, tab.getLastRow());
+        int lastColumn = Math.min(range.endColumn, tab.getLastColumn());
+
+        int outer = byColumn ? lastColumn - range.startColumn : lastRow - range.startRow;
+        int inner = byColumn ? lastRow - range.startRow : lastColumn - range.startColumn;
+
+        List<List<Object>> values = new ArrayList<>();
+        for (int i = 0; i <= outer; i++) {
+            List<Object> line = new ArrayList<>();
+            for (int j = 0; j <= inner; j++) {
+                Object cell = byColumn
+                        ? tab.get(range.startRow + j, range.startColumn + i)
+                        : tab.get(range.startRow + i, range.startColumn + j);
+                line.add(cell == null ? "" : cell);
+            }
+
+            while (!line.isEmpty() && isEmpty(line.get(line.size() - 1))) {
+                line.remove(line.size() - 1);
+            }
+            values.add(line);
+        }
+
+        while (!values.isEmpty() && values.get(values.size() - 1).isEmpty()) {
+            values.remove(values.size() - 1);
+        }
+
+        return values.isEmpty() ? null : values;
+    }
+
+    /**
+     * Writes rows of cells from the start of a range.
+     * @param range the range to write to.
+     * @param values the rows of cells to write.
+     */
+    private void writeRange(Range range, List<List<Object>> values)
+            throws IOException {
+        Tab tab = getTab(range.tab);
+        for (int i = 0; i < values.size(); i++) {
+            List<Object> row = values.get(i);
+            for (int j = 0; j < row.size(); j++) {
+                tab.set(range.startRow + i, range.startColumn + j, row.get(j));
+            }
+        }
+    }
+
+    @Override
+    public List<List<Object>> getValues(String range) throws IOException {
+        simulateRequest();
+        synchronized (this) {
+            return readRange(parseRange(range), false);
+        }
+    }
+
+    /**
+     * Retrieves several ranges of cells at once.
+     * @param ranges the ranges to retrieve.
+     * @param byColumn True to group the cells column by column.
+     *                 False to group them row by row.
+     * @return the cells of each range, in order.
+     */
+    private List<ValueRange> readRanges(List<String> ranges, boolean byColumn)
+            throws IOException {
+        simulateRequest();
+        synchronized (this) {
+            List<ValueRange> valueRanges = new ArrayList<>(ranges.size());
+            for (String range : ranges) {
+                valueRanges.add(new ValueRange()
+                        .setRange(range)
+                        .setMajorDimension(byColumn ? "COLUMNS" : "ROWS")
+                        .setValues(readRange(parseRange(range), byColumn)));
+            }
+
+            return valueRanges;
+        }
+    }
+
+    @Override
+    public List<ValueRange> getRows(List<String> ranges) throws IOException {
+        return readRanges(ranges, false);
+    }
+
+    @Override
+    public List<ValueRange> getColumns(List<String> ranges) throws IOException {
+        return readRanges(ranges, true);
+    }
+
+    @Override
+    public List<SheetProperties> getTabs() throws IOException {
+        simulateRequest();
+        synchronized (this) {
+            List<SheetProperties> properties = new ArrayList<>(tabs.size());
+            for (Tab tab : tabs.values()) {
+                properties.add(tab.getProperties());
+            }
+
+            return properties;
+        }
+    }
+
+    /**
+     * Duplicates a tab, placing the copy last.
+     * @param req the duplication to make.
+     * @return the properties of the copy.
+     */
+    private SheetProperties duplicate(DuplicateSheetRequest req)
+            throws IOException {
+        Tab source = getTab(req.getSourceSheetId());
+        String title = req.getNewSheetName();
+        if (title == null || tabs.containsKey(title)) {
+            throw badRequest("A sheet with the name \"" + title
+                    + "\" already exists.");
+        }
+
+        Tab copy = new Tab(nextSheetID++, title);
+        for (List<Object> row : source.rows) {
+            copy.rows.add(new ArrayList<>(row));
+        }
+        copy.rowCount = source.rowCount;
+        copy.columnCount = source.columnCount;
+
+        tabs.put(title, copy);
+        return copy.getProperties();
+    }
+
+    /**
+     * Renames a tab.
+     * @param req the renaming to make.
+     */
+    private void rename(UpdateSheetPropertiesRequest req) throws IOException {
+        SheetProperties properties = req.getProperties();
+        Tab tab = getTab(properties.getSheetId());
+        if (!"title".equals(req.getFields())) {
+            throw badRequest("Only tab titles can be updated: " + req.getFields());
+        } else if (tabs.containsKey(properties.getTitle())) {
+            throw badRequest("A sheet with the name \""
+                    + properties.getTitle() + "\" already exists.");
+        }
+
+        tabs.remove(tab.title);
+        tab.title = properties.getTitle();
+        tabs.put(tab.title, tab);
+    }
+
+    /**
+     * Compares two cells the way Google sorts them, with numbers
+     * before text. Empty cells are not compared.
+     * @param a the first cell.
+     * @param b the second cell.
+     */
+    private static int compareCells(Object a, Object b) {
+        boolean aNumber = a instanceof Number;
+        boolean bNumber = b instanceof Number;
+        if (aNumber && bNumber) {
+            return Double.compare(((Number) a).doubleValue(),
+                    ((Number) b).doubleValue());
+        } else if (aNumber != bNumber) {
+            return aNumber ? -1 : 1;
+        }
+
+        return a.toString().compareToIgnoreCase(b.toString());
+    }
+
+    /**
+     * Sorts the rows of a grid range.
+     * @param req the sort to make.
+     */
+    private void sort(SortRangeRequest req) throws IOException {
+        GridRange grid = req.getRange();
+        Tab tab = getTab(grid.getSheetId() == null ? 0 : grid.getSheetId());
+
+        int start = grid.getStartRowIndex() == null ? 0 : grid.getStartRowIndex();
+        int end = grid.getEndRowIndex() == null
+                ? tab.rows.size() : Math.min(grid.getEndRowIndex(), tab.rows.size());
+        if (start >= end) {
+            return;
+        }
+
+        Comparator<List<Object>> order = (a, b) -> 0;
+        for (SortSpec spec : req.getSortSpecs()) {
+            int column = spec.getDimensionIndex();
+            boolean descending = "DESCENDING".equals(spec.getSortOrder());
+            order = order.thenComparing((a, b) -> {
+                Object cellA = column < a.size() ? a.get(column) : null;
+                Object cellB = column < b.size() ? b.get(column) : null;
+                if (isEmpty(cellA) || isEmpty(cellB)) {
+                    // empty cells always sort last
+                    return Boolean.compare(isEmpty(cellA), isEmpty(cellB));
+                }
+
+                int result = compareCells(cellA, cellB);
+                return descending ? -result : result;
+            });
+        }
+
+        // Google only sorts the grid range's columns, but the bot
+        // always sorts whole rows
+        Collections.sort(tab.rows.subList(start, end), order);
+    }
+
+    /**
+     * Deletes rows from a tab.
+     * @param req the deletion to make.
+     */
+    private void delete(DeleteDimensionRequest req) throws IOException {
+        if (!"ROWS".equals(req.getRange().getDimension())) {
+            throw badRequest("Only rows can be deleted.");
+        }
+
+        Tab tab = getTab(req.getRange().getSheetId());
+        int start = req.getRange().getStartIndex();
+        int end = req.getRange().getEndIndex();
+        if (start < 0 || end > tab.rowCount || start >= end) {
+            throw badRequest("Invalid requests[0].deleteDimension: "
+                    + "Range is out of bounds.");
+        }
+
+        for (int i = Math.min(end, tab.rows.size()) - 1; i >= start; i--) {
+            tab.rows.remove(i);
+        }
+        tab.rowCount -= end - start;
+    }
+
+    @Override
+    public BatchUpdateSpreadsheetResponse batchUpdate(Request req, String fields)
+            throws IOException {
+        simulateRequest();
+        synchronized (this) {
+            Response reply = new Response();
+            if (req.getDuplicateSheet() != null) {
+                reply.setDuplicateSheet(new DuplicateSheetResponse()
+                        .setProperties(duplicate(req.getDuplicateSheet())));
+            } else if (req.getUpdateSheetProperties() != null) {
+                rename(req.getUpdateSheetProperties());
+            } else if (req.getSortRange() != null) {
+                sort(req.getSortRange());
+            } else if (req.getDeleteDimension() != null) {
+                delete(req.getDeleteDimension());
+            } else {
+                throw badRequest("Request is not emulated: " + req);
+            }
+
+            return new BatchUpdateSpreadsheetResponse()
+                    .setReplies(Collections.singletonList(reply));
+        }
+    }
+
+    @Override
+    public String append(String tab, ValueRange rows) throws IOException {
+        simulateRequest();
+        synchronized (this) {
+            Tab appendTab = getTab(tab);
+            List<List<Object>> values = rows.getValues();
+
+            int firstRow = appendTab.getLastRow() + 1;
+            int numColumns = 0;
+            for (int i = 0; i < values.size(); i++) {
+                // make room for the rows, as with INSERT_ROWS
+                appendTab.rows.add(Math.min(firstRow + i, appendTab.rows.size()),
+                        new ArrayList<>());
+                numColumns = Math.max(numColumns, values.get(i).size());
+            }
+            appendTab.rowCount += values.size();
+
+            Range range = new Range();
+            range.tab = tab;
+            range.startRow = firstRow;
+            range.startColumn = 0;
+            writeRange(range, values);
+
+            return String.format("'%s'!A%s:%s%s", tab, firstRow + 1,
+                    columnLetter(Math.max(numColumns, 1) - 1), firstRow + values.size());
+        }
+    }
+
+    @Override
+    public void update(String range, ValueRange values) throws IOException {
+        simulateRequest();
+        synchronized (this) {
+            writeRange(parseRange(range), values.getValues());
+        }
+    }
+
+    @Override
+    public void updateAll(List<ValueRange> values) throws IOException {
+        simulateRequest();
+        synchronized (this) {
+            for (ValueRange value : values) {
+                writeRange(parseRange(value.getRange()), value.getValues());
+            }
+        }
+    }
+
+    @Override
+    public void clear(String range) throws IOException {
+        simulateRequest();
+        synchronized (this) {
+            Range cleared = parseRange(range);
+            Tab tab = getTab(cleared.tab);
+
+            int lastRow = Math.min(cleared.endRow, tab.rows.size() - 1);
+            for (int i = cleared.startRow; i <= lastRow; i++) {
+                List<Object> cells = tab.rows.get(i);
+                int lastColumn = Math.min(cleared.endColumn, cells.size() - 1);
+                for (int j = cleared.startColumn; j <= lastColumn; j++) {
+                    cells.set(j, null);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package bot.Tools;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author  Wil Aquino
+ * Date:    August 8, 2022
+ * Project: Libra
+ * Module:  RateLimiter.java
+ * Purpose: Limits how often requests can be made, via a
+ *          token bucket.
+ */
+public class RateLimiter {
+
+    /** The most tokens the bucket can hold. */
+    private final double capacity;
+
+    /** The tokens added back to the bucket per nanosecond. */
+    private final double refillRate;
+
+    /** The tokens currently in the bucket. */
+    private double tokens;
+
+    /** The time the bucket was last refilled, in nanoseconds. */
+    private long lastRefill;
+
+    /** The number of requests waiting for a token. */
+    private final AtomicInteger waiting;
+
+    /**
+     * Constructs a full token bucket.
+     * @param requestsPerMinute the requests allowed per minute.
+     * @param burst the most requests allowed at once.
+     */
+    public RateLimiter(int requestsPerMinute, int burst) {
+        capacity = burst;
+        refillRate = requestsPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+        tokens = burst;
+        lastRefill = System.nanoTime();
+        waiting = new AtomicInteger(0);
+    }
+
+    /** Adds the tokens earned since the last refill to the bucket. */
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * refillRate);
+        lastRefill = now;
+    }
+
+    /**
+     * Takes a token from the bucket if one is available.
+     * @return 0 if a token was taken.
+     *         the nanoseconds until a token is available, otherwise.
+     */
+    private synchronized long tryAcquire() {
+        refill();
+        if (tokens >= 1.0) {
+            tokens -= 1.0;
+            return 0;
+        }
+
+        return (long) Math.ceil((1.0 - tokens) / refillRate);
+    }
+
+    /**
+     * Takes a token from the bucket, waiting for one
+     * if the bucket is empty.
+     */
+    public void acquire() throws InterruptedException {
+        waiting.incrementAndGet();
+        try {
+            long delay = tryAcquire();
+            while (delay > 0) {
+                TimeUnit.NANOSECONDS.sleep(delay);
+                delay = tryAcquire();
+            }
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    /** Retrieves the number of requests waiting for a token. */
+    public int getQueueDepth() {
+        return waiting.get();
+    }
+}
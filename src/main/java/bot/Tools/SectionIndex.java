@@ -0,0 +1,255 @@
+package bot.Tools;
+
+import java.util.Arrays;
+
+/**
+ * @author  Wil Aquino
+ * Date:    August 12, 2022
+ * Project: Libra
+ * Module:  SectionIndex.java
+ * Purpose: Indexes the rows of a spreadsheet tab by
+ *          Discord ID, in row order.
+ */
+public class SectionIndex<T> {
+
+    /** The largest fraction of hash slots which can be filled. */
+    private static final double MAX_LOAD = 0.5;
+
+    /** The Discord IDs of the entries, in the order they were added. */
+    private long[] ids;
+
+    /** The numbered spreadsheet rows of the entries. */
+    private int[] rows;
+
+    /** The decoded rows of the entries. */
+    private Object[] values;
+
+    /** The number of entries. */
+    private int size;
+
+    /**
+     * Hash slots pointing to the entries, offset by 1 so that
+     * 0 marks an empty slot.
+     */
+    private int[] slots;
+
+    /**
+     * Constructs an empty index.
+     * @param capacity the expected number of entries.
+     */
+    public SectionIndex(int capacity) {
+        int initial = Math.max(capacity, 4);
+
+        ids = new long[initial];
+        rows = new int[initial];
+        values = new Object[initial];
+        size = 0;
+        slots = new int[tableSize(initial)];
+    }
+
+    /**
+     * Calculates the number of hash slots needed for some entries.
+     * @param capacity the number of entries.
+     * @return a power of two which keeps the slots under the max load.
+     */
+    private static int tableSize(int capacity) {
+        int needed = (int) Math.ceil(capacity / MAX_LOAD);
+        return Integer.highestOneBit(Math.max(needed - 1, 1)) << 1;
+    }
+
+    /**
+     * Mixes the bits of a Discord ID, so that IDs made around the same
+     * time do not land in neighboring slots.
+     * @param id the ID to mix.
+     */
+    private static int hash(long id) {
+        id ^= id >>> 33;
+        id *= 0xff51afd7ed558ccdL;
+        id ^= id >>> 33;
+        id *= 0xc4ceb9fe1a85ec53L;
+        id ^= id >>> 33;
+        return (int) id;
+    }
+
+    /**
+     * Parses a Discord ID without throwing on malformed input.
+     * @param id the ID to parse.
+     * @return said ID.
+     *         -1 if it is not a Discord ID.
+     */
+    public static long parseID(String id) {
+        if (id == null || id.isEmpty() || id.length() > 19) {
+            return -1;
+        }
+
+        long parsed = 0;
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            parsed = parsed * 10 + (c - '0');
+        }
+
+        return parsed < 0 ? -1 : parsed;
+    }
+
+    /**
+     * Finds the entry of a Discord ID.
+     * @param id the ID to find.
+     * @return the index of the entry.
+     *         -1 if the ID is not indexed.
+     */
+    private int find(long id) {
+        if (id < 0) {
+            return -1;
+        }
+
+        int mask = slots.length - 1;
+        for (int slot = hash(id) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int entry = slots[slot] - 1;
+            if (ids[entry] == id) {
+                return entry;
+            }
+        }
+
+        return -1;
+    }
+
+    /** Rebuilds the hash slots with room for twice the entries. */
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        rows = Arrays.copyOf(rows, capacity);
+        values = Arrays.copyOf(values, capacity);
+
+        slots = new int[tableSize(capacity)];
+        int mask = slots.length - 1;
+        for (int entry = 0; entry < size; entry++) {
+            int slot = hash(ids[entry]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = entry + 1;
+        }
+    }
+
+    /**
+     * Adds a row to the index, replacing the row already
+     * indexed under the same Discord ID.
+     * @param id the Discord ID of the row.
+     * @param row the numbered spreadsheet row.
+     * @param value the decoded row.
+     */
+    public void put(long id, int row, T value) {
+        int entry = find(id);
+        if (entry != -1) {
+            rows[entry] = row;
+            values[entry] = value;
+            return;
+        }
+
+        if (size == ids.length) {
+            grow();
+        }
+
+        ids[size] = id;
+        rows[size] = row;
+        values[size] = value;
+
+        int mask = slots.length - 1;
+        int slot = hash(id) & mask;
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = size + 1;
+        size++;
+    }
+
+    /** Retrieves the number of indexed rows. */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether a Discord ID is indexed or not.
+     * @param id the ID to check.
+     */
+    public boolean containsKey(long id) {
+        return find(id) != -1;
+    }
+
+    /**
+     * Checks whether a Discord ID is indexed or not.
+     * @param id the ID to check.
+     */
+    public boolean containsKey(String id) {
+        return containsKey(parseID(id));
+    }
+
+    /**
+     * Retrieves the decoded row of a Discord ID.
+     * @param id the ID to look up.
+     * @return said row.
+     *         null if the ID is not indexed.
+     */
+    @SuppressWarnings("unchecked")
+    public T get(long id) {
+        int entry = find(id);
+        return entry == -1 ? null : (T) values[entry];
+    }
+
+    /**
+     * Retrieves the decoded row of a Discord ID.
+     * @param id the ID to look up.
+     * @return said row.
+     *         null if the ID is not indexed.
+     */
+    public T get(String id) {
+        return get(parseID(id));
+    }
+
+    /**
+     * Retrieves the numbered spreadsheet row of a Discord ID.
+     * @param id the ID to look up.
+     * @return said row number.
+     *         -1 if the ID is not indexed.
+     */
+    public int getRow(String id) {
+        int entry = find(parseID(id));
+        return entry == -1 ? -1 : rows[entry];
+    }
+
+    /**
+     * Retrieves the Discord ID of an entry.
+     * @param i the entry, in the order the entries were added.
+     */
+    public String getIDAt(int i) {
+        return Long.toString(ids[i]);
+    }
+
+    /**
+     * Retrieves the Discord ID of an entry, as a number.
+     * @param i the entry, in the order the entries were added.
+     */
+    public long getLongIDAt(int i) {
+        return ids[i];
+    }
+
+    /**
+     * Retrieves the numbered spreadsheet row of an entry.
+     * @param i the entry, in the order the entries were added.
+     */
+    public int getRowAt(int i) {
+        return rows[i];
+    }
+
+    /**
+     * Retrieves the decoded row of an entry.
+     * @param i the entry, in the order the entries were added.
+     */
+    @SuppressWarnings("unchecked")
+    public T getValueAt(int i) {
+        return (T) values[i];
+    }
+}
@@ -0,0 +1,168 @@
+package bot.Tools;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author  Wil Aquino
+ * Date:    August 10, 2022
+ * Project: Libra
+ * Module:  SheetColumns.java
+ * Purpose: Stores a window of selected columns from a
+ *          spreadsheet tab.
+ */
+public class SheetColumns {
+
+    /** The numbered row the window starts at. */
+    private final int startRow;
+
+    /** The cells of each selected column, indexed by lettered column. */
+    private final Map<String, List<Object>> columns;
+
+    /** The number of rows within the window which have values. */
+    private final int numRows;
+
+    /**
+     * Constructs the window of columns.
+     * @param start the numbered row the window starts at.
+     * @param cells the cells of each selected column, indexed by
+     *              lettered column.
+     */
+    public SheetColumns(int start, Map<String, List<Object>> cells) {
+        startRow = start;
+        columns = cells;
+
+        int longest = 0;
+        for (List<Object> column : cells.values()) {
+            longest = Math.max(longest, column.size());
+        }
+        numRows = longest;
+    }
+
+    /** Retrieves the number of rows within the window which have values. */
+    public int size() {
+        return numRows;
+    }
+
+    /**
+     * Retrieves the numbered spreadsheet row of a row within the window.
+     * @param i the row within the window.
+     */
+    public int getRow(int i) {
+        return startRow + i;
+    }
+
+    /**
+     * Retrieves the cells of a column.
+     * @param column the lettered column.
+     * @return said cells.
+     *         an empty list if the column was not selected.
+     */
+    public List<Object> getColumn(String column) {
+        List<Object> cells = columns.get(column);
+        if (cells == null) {
+            return Collections.emptyList();
+        }
+
+        return Collections.unmodifiableList(cells);
+    }
+
+    /**
+     * Retrieves a cell of a column.
+     * @param column the lettered column.
+     * @param i the row within the window.
+     * @return said cell.
+     *         null if the cell is empty.
+     */
+    public Object get(String column, int i) {
+        List<Object> cells = columns.get(column);
+        if (cells == null || i >= cells.size()) {
+            return null;
+        }
+
+        Object cell = cells.get(i);
+        if (cell == null || cell.toString().isEmpty()) {
+            return null;
+        }
+
+        return cell;
+    }
+
+    /**
+     * Retrieves a cell of a column as text.
+     * @param column the lettered column.
+     * @param i the row within the window.
+     * @return said text.
+     *         an empty string if the cell is empty.
+     */
+    public String getString(String column, int i) {
+        Object cell = get(column, i);
+        if (cell == null) {
+            return "";
+        }
+
+        return cell.toString();
+    }
+
+    /**
+     * Retrieves a cell of a column as a whole number.
+     * @param column the lettered column.
+     * @param i the row within the window.
+     * @return said number.
+     *         0 if the cell is empty.
+     * @throws NumberFormatException if the cell is not a number.
+     */
+    public int getInt(String column, int i) {
+        Object cell = get(column, i);
+        if (cell == null) {
+            return 0;
+        } else if (cell instanceof Number) {
+            return ((Number) cell).intValue();
+        }
+
+        return Integer.parseInt(cell.toString());
+    }
+
+    /**
+     * Retrieves a cell of a column as a decimal number.
+     * @param column the lettered column.
+     * @param i the row within the window.
+     * @return said number.
+     *         0.0 if the cell is empty.
+     * @throws NumberFormatException if the cell is not a number.
+     */
+    public double getDouble(String column, int i) {
+        Object cell = get(column, i);
+        if (cell == null) {
+            return 0.0;
+        } else if (cell instanceof Number) {
+            return ((Number) cell).doubleValue();
+        }
+
+        return Double.parseDouble(cell.toString());
+    }
+
+    /**
+     * Finds the first row of a column holding a value.
+     * @param column the lettered column to search.
+     * @param value the value to find.
+     * @return the row within the window.
+     *         -1 if the value could not be found.
+     */
+    public int find(String column, String value) {
+        List<Object> cells = columns.get(column);
+        if (cells == null) {
+            return -1;
+        }
+
+        for (int i = 0; i < cells.size(); i++) {
+            Object cell = cells.get(i);
+            if (cell != null && cell.toString().equals(value)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+}
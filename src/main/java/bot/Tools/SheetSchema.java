@@ -0,0 +1,244 @@
+package bot.Tools;
+
+import net.dv8tion.jda.api.events.interaction.GenericInteractionCreateEvent;
+
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.IntFunction;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * @author  Wil Aquino
+ * Date:    August 11, 2022
+ * Project: Libra
+ * Module:  SheetSchema.java
+ * Purpose: Decodes the rows of a spreadsheet tab into
+ *          typed objects, column by column.
+ */
+public class SheetSchema<T> {
+
+    /** Creates an empty object for a numbered row. */
+    private final IntFunction<T> factory;
+
+    /** The column index and decoder of each bound column. */
+    private final List<Binding<T>> bindings;
+
+    /** The index of the last bound column. */
+    private int lastColumn;
+
+    /**
+     * Decodes a cell into an object's field.
+     * @param <T> the type of object to decode into.
+     */
+    private interface Binding<T> {
+
+        /** Retrieves the index of the bound column. */
+        int getColumn();
+
+        /**
+         * Decodes a cell into an object.
+         * @param obj the object to decode into.
+         * @param cell the cell to decode, or null if it is empty.
+         */
+        void decode(T obj, Object cell);
+    }
+
+    /**
+     * Constructs a schema without any bound columns.
+     * @param rowFactory creates an empty object for a numbered row.
+     *
+     * Note: Column A always holds the Discord IDs that rows are
+     *       indexed by, so it cannot be bound.
+     */
+    public SheetSchema(IntFunction<T> rowFactory) {
+        factory = rowFactory;
+        bindings = new ArrayList<>();
+        lastColumn = 0;
+    }
+
+    /**
+     * Converts a lettered column to its index.
+     * @param column the column to convert (i.e. "A" is 0).
+     */
+    private static int columnIndex(String column) {
+        int index = 0;
+        for (int i = 0; i < column.length(); i++) {
+            index = index * 26 + (column.charAt(i) - 'A' + 1);
+        }
+
+        return index - 1;
+    }
+
+    /**
+     * Converts a column index to its lettered format.
+     * @param index the index to convert (i.e. 0 is "A").
+     */
+    private static String columnLetter(int index) {
+        StringBuilder column = new StringBuilder();
+        for (int i = index + 1; i > 0; i = (i - 1) / 26) {
+            column.insert(0, (char) ('A' + (i - 1) % 26));
+        }
+
+        return column.toString();
+    }
+
+    /**
+     * Adds a bound column to the schema.
+     * @param binding the binding to add.
+     * @return this schema.
+     */
+    private SheetSchema<T> bind(Binding<T> binding) {
+        bindings.add(binding);
+        lastColumn = Math.max(lastColumn, binding.getColumn());
+        return this;
+    }
+
+    /**
+     * Binds a column to a text field.
+     * @param column the lettered column to bind.
+     * @param setter sets the field of an object.
+     * @return this schema.
+     *
+     * Note: Empty cells are decoded as empty strings.
+     */
+    public SheetSchema<T> bindString(String column, BiConsumer<T, String> setter) {
+        int index = columnIndex(column);
+        return bind(new Binding<T>() {
+            public int getColumn() {
+                return index;
+            }
+
+            public void decode(T obj, Object cell) {
+                setter.accept(obj, cell == null ? "" : cell.toString());
+            }
+        });
+    }
+
+    /**
+     * Binds a column to a whole number field.
+     * @param column the lettered column to bind.
+     * @param setter sets the field of an object.
+     * @return this schema.
+     *
+     * Note: Empty cells are decoded as 0.
+     */
+    public SheetSchema<T> bindInt(String column, ObjIntConsumer<T> setter) {
+        int index = columnIndex(column);
+        return bind(new Binding<T>() {
+            public int getColumn() {
+                return index;
+            }
+
+            public void decode(T obj, Object cell) {
+                if (cell == null) {
+                    setter.accept(obj, 0);
+                } else if (cell instanceof Number) {
+                    setter.accept(obj, ((Number) cell).intValue());
+                } else {
+                    setter.accept(obj, Integer.parseInt(cell.toString()));
+                }
+            }
+        });
+    }
+
+    /**
+     * Binds a column to a decimal number field.
+     * @param column the lettered column to bind.
+     * @param setter sets the field of an object.
+     * @return this schema.
+     *
+     * Note: Empty cells are decoded as 0.0.
+     */
+    public SheetSchema<T> bindDouble(String column, ObjDoubleConsumer<T> setter) {
+        int index = columnIndex(column);
+        return bind(new Binding<T>() {
+            public int getColumn() {
+                return index;
+            }
+
+            public void decode(T obj, Object cell) {
+                if (cell == null) {
+                    setter.accept(obj, 0.0);
+                } else if (cell instanceof Number) {
+                    setter.accept(obj, ((Number) cell).doubleValue());
+                } else {
+                    setter.accept(obj, Double.parseDouble(cell.toString()));
+                }
+            }
+        });
+    }
+
+    /**
+     * Retrieves the last lettered column the schema needs.
+     */
+    public String getLastColumn() {
+        return columnLetter(lastColumn);
+    }
+
+    /**
+     * Decodes a row of the tab.
+     * @param interaction the user interaction calling this method, if any.
+     * @param pos the numbered row within the tab.
+     * @param row the cells of the row, starting from column A.
+     * @return the decoded object.
+     */
+    public T decodeRow(GenericInteractionCreateEvent interaction,
+                       int pos, List<Object> row) {
+        T obj = factory.apply(pos);
+        try {
+            for (Binding<T> binding : bindings) {
+                int column = binding.getColumn();
+                Object cell = null;
+                if (column < row.size() && !row.get(column).toString().isEmpty()) {
+                    cell = row.get(column);
+                }
+
+                binding.decode(obj, cell);
+            }
+        } catch (NumberFormatException e) {
+            LoggerFactory.getLogger(this.getClass())
+                    .error("Spreadsheet formatting problem detected.");
+            if (interaction != null) {
+                interaction.getHook().sendMessage(
+                        "***There seems to be a formatting problem within the "
+                                + "spreadsheet.*** Please fix it!").queue();
+            }
+        }
+
+        return obj;
+    }
+
+    /**
+     * Decodes every row of the tab, skipping the header row.
+     * @param interaction the user interaction calling this method, if any.
+     * @param values the cells of the tab, starting from cell A1.
+     * @return the decoded objects, indexed by Discord ID in row order.
+     *
+     * Note: Rows without a Discord ID in column A are skipped.
+     */
+    public SectionIndex<T> decode(GenericInteractionCreateEvent interaction,
+                                  List<List<Object>> values) {
+        SectionIndex<T> data = new SectionIndex<>(values.size());
+        for (int i = 1; i < values.size(); i++) {
+            List<Object> row = values.get(i);
+            if (row.isEmpty()) {
+                continue;
+            }
+
+            long id = SectionIndex.parseID(row.get(0).toString());
+            if (id == -1) {
+                LoggerFactory.getLogger(this.getClass())
+                        .warn("Row " + (i + 1) + " does not have a Discord ID.");
+                continue;
+            }
+
+            data.put(id, i + 1, decodeRow(interaction, i + 1, row));
+        }
+
+        return data;
+    }
+}
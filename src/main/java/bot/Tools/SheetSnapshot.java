@@ -0,0 +1,246 @@
+package bot.Tools;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * @author  Wil Aquino
+ * Date:    August 17, 2022
+ * Project: Libra
+ * Module:  SheetSnapshot.java
+ * Purpose: Saves the rows of a spreadsheet tab to disk, so they
+ *          can be loaded without Google after a restart.
+ */
+public class SheetSnapshot {
+
+    /** Marks the start of a snapshot file ("LSNP"). */
+    private static final int MAGIC = 0x4C534E50;
+
+    /** The version of the snapshot format. */
+    private static final int VERSION = 1;
+
+    /** Flag for a snapshot whose records are compressed. */
+    private static final byte COMPRESSED = 1;
+
+    /** Tag of a text cell. */
+    private static final byte TEXT = 0;
+
+    /** Tag of a number cell. */
+    private static final byte NUMBER = 1;
+
+    /** Tag of a true or false cell. */
+    private static final byte BOOLEAN = 2;
+
+    /** The snapshot file. */
+    private final Path file;
+
+    /** Flag for whether to compress the records or not. */
+    private final boolean compress;
+
+    /**
+     * Reads from a memory-mapped file.
+     */
+    private static class BufferInputStream extends InputStream {
+
+        /** The mapped bytes of the file. */
+        private final ByteBuffer buffer;
+
+        /**
+         * Constructs a stream over mapped bytes.
+         * @param mapped the mapped bytes of the file.
+         */
+        private BufferInputStream(ByteBuffer mapped) {
+            buffer = mapped;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+    }
+
+    /**
+     * Constructs the snapshot of a tab.
+     * @param snapshotFile the file to save the snapshot to.
+     * @param compressRecords True if the records should be compressed.
+     */
+    public SheetSnapshot(Path snapshotFile, boolean compressRecords) {
+        file = snapshotFile;
+        compress = compressRecords;
+    }
+
+    /**
+     * Encodes a row as a length-prefixed record.
+     * @param out the stream to write the record to.
+     * @param row the cells of the row.
+     */
+    private static void writeRecord(DataOutputStream out, List<Object> row)
+            throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream record = new DataOutputStream(bytes);
+
+        record.writeShort(row.size());
+        for (Object cell : row) {
+            if (cell instanceof Number) {
+                record.writeByte(NUMBER);
+            } else if (cell instanceof Boolean) {
+                record.writeByte(BOOLEAN);
+            } else {
+                record.writeByte(TEXT);
+            }
+            record.writeUTF(String.valueOf(cell));
+        }
+
+        out.writeInt(bytes.size());
+        bytes.writeTo(out);
+    }
+
+    /**
+     * Decodes a length-prefixed record into a row.
+     * @param in the stream to read the record from.
+     * @return the cells of the row.
+     */
+    private static List<Object> readRecord(DataInputStream in)
+            throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("A snapshot record is corrupted.");
+        }
+
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        DataInputStream record = new DataInputStream(
+                new BufferInputStream(ByteBuffer.wrap(bytes)));
+
+        int numCells = record.readUnsignedShort();
+        List<Object> row = new ArrayList<>(numCells);
+        for (int i = 0; i < numCells; i++) {
+            byte tag = record.readByte();
+            String text = record.readUTF();
+            switch (tag) {
+                case NUMBER:
+                    row.add(new BigDecimal(text));
+                    break;
+                case BOOLEAN:
+                    row.add(Boolean.valueOf(text));
+                    break;
+                default:
+                    row.add(text);
+                    break;
+            }
+        }
+
+        return row;
+    }
+
+    /**
+     * Saves rows to the snapshot, replacing the previous one
+     * in a single step.
+     * @param rows the rows to save.
+     */
+    public void save(List<List<Object>> rows) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try (FileOutputStream fileOut = new FileOutputStream(temp.toFile())) {
+            DataOutputStream header = new DataOutputStream(fileOut);
+            header.writeInt(MAGIC);
+            header.writeInt(VERSION);
+            header.writeByte(compress ? COMPRESSED : 0);
+
+            BufferedOutputStream buffered = new BufferedOutputStream(fileOut);
+            GZIPOutputStream compressed = null;
+            OutputStream body = buffered;
+            if (compress) {
+                compressed = new GZIPOutputStream(buffered);
+                body = compressed;
+            }
+
+            DataOutputStream out = new DataOutputStream(body);
+            out.writeInt(rows.size());
+            for (List<Object> row : rows) {
+                writeRecord(out, row);
+            }
+
+            out.flush();
+            if (compressed != null) {
+                compressed.finish();
+            }
+            buffered.flush();
+            fileOut.getFD().sync();
+        }
+
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Loads the rows of the snapshot.
+     * @return said rows.
+     *         null if there is no snapshot.
+     *
+     * Note: The file is memory-mapped rather than read into a buffer.
+     */
+    public List<List<Object>> load() throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(
+                    FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            InputStream body = new BufferInputStream(mapped);
+
+            DataInputStream header = new DataInputStream(body);
+            if (header.readInt() != MAGIC || header.readInt() != VERSION) {
+                throw new IOException("The snapshot " + file + " has an unknown format.");
+            }
+
+            if (header.readByte() == COMPRESSED) {
+                body = new GZIPInputStream(body);
+            }
+
+            DataInputStream in = new DataInputStream(body);
+            int numRows = in.readInt();
+            if (numRows < 0) {
+                throw new IOException("The snapshot " + file + " is corrupted.");
+            }
+
+            List<List<Object>> rows = new ArrayList<>(Math.min(numRows, 1 << 16));
+            for (int i = 0; i < numRows; i++) {
+                rows.add(readRecord(in));
+            }
+
+            return rows;
+        }
+    }
+}
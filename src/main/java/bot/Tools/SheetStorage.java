@@ -0,0 +1,86 @@
+package bot.Tools;
+
+import com.google.api.services.sheets.v4.model.BatchUpdateSpreadsheetResponse;
+import com.google.api.services.sheets.v4.model.Request;
+import com.google.api.services.sheets.v4.model.SheetProperties;
+import com.google.api.services.sheets.v4.model.ValueRange;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * @author  Wil Aquino
+ * Date:    August 14, 2022
+ * Project: Libra
+ * Module:  SheetStorage.java
+ * Purpose: Stores the values and tabs of a single spreadsheet,
+ *          as used by GoogleSheetsAPI.
+ */
+public interface SheetStorage {
+
+    /**
+     * Retrieves a range of unformatted values, row by row.
+     * @param range the range to retrieve, formatted as "'tab'!A1:B2".
+     * @return said values.
+     *         null if the range has no values.
+     */
+    List<List<Object>> getValues(String range) throws IOException;
+
+    /**
+     * Retrieves several ranges of unformatted values, row by row.
+     * @param ranges the ranges to retrieve, formatted as "'tab'!A1:B2".
+     * @return the values of each range, in order.
+     */
+    List<ValueRange> getRows(List<String> ranges) throws IOException;
+
+    /**
+     * Retrieves several ranges of unformatted values, column by column.
+     * @param ranges the ranges to retrieve, formatted as "'tab'!A1:B2".
+     * @return the values of each range, in order.
+     */
+    List<ValueRange> getColumns(List<String> ranges) throws IOException;
+
+    /**
+     * Retrieves the properties (ID, title and grid size) of every tab.
+     */
+    List<SheetProperties> getTabs() throws IOException;
+
+    /**
+     * Modifies the spreadsheet's structure.
+     * @param req the modification to make (i.e. duplicating, renaming or
+     *            sorting a tab, or deleting rows).
+     * @param fields the partial response mask of the response.
+     * @return the response to the modification.
+     */
+    BatchUpdateSpreadsheetResponse batchUpdate(Request req, String fields)
+            throws IOException;
+
+    /**
+     * Appends rows after the last row with values within a tab,
+     * inserting new rows for them.
+     * @param tab the name of the tab to add to.
+     * @param rows the rows of values to append.
+     * @return the range the rows were written to.
+     *         null if it is unknown.
+     */
+    String append(String tab, ValueRange rows) throws IOException;
+
+    /**
+     * Updates a range of values, as if the user entered them.
+     * @param range the range of values to update.
+     * @param values the values to update to.
+     */
+    void update(String range, ValueRange values) throws IOException;
+
+    /**
+     * Updates several ranges of values at once, as if the user entered them.
+     * @param values the values to update to, each carrying its own range.
+     */
+    void updateAll(List<ValueRange> values) throws IOException;
+
+    /**
+     * Clears a range of values.
+     * @param range the range of values to clear.
+     */
+    void clear(String range) throws IOException;
+}
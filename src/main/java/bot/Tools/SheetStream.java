@@ -0,0 +1,260 @@
+package bot.Tools;
+
+import net.dv8tion.jda.api.events.interaction.GenericInteractionCreateEvent;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * @author  Wil Aquino
+ * Date:    August 16, 2022
+ * Project: Libra
+ * Module:  SheetStream.java
+ * Purpose: Streams the decoded rows of a spreadsheet tab,
+ *          one window of rows at a time.
+ */
+public class SheetStream<T> implements Iterator<SheetStream.Row<T>> {
+
+    /** The first numbered row after the tab's header. */
+    private static final int FIRST_ROW = 2;
+
+    /** The connection to the tab's spreadsheet. */
+    private final GoogleSheetsAPI link;
+
+    /** The user interaction reading the tab, if any. */
+    private final GenericInteractionCreateEvent interaction;
+
+    /** The name of the streamed tab. */
+    private final String tab;
+
+    /** The schema to decode each row with. */
+    private final SheetSchema<T> schema;
+
+    /** The number of rows downloaded within each window. */
+    private final int windowRows;
+
+    /** The cells of the current window's rows. */
+    private List<List<Object>> window;
+
+    /** The numbered row the current window starts at. */
+    private int windowStart;
+
+    /** The index of the next row to decode within the current window. */
+    private int cursor;
+
+    /**
+     * The download of the window after the current one.
+     * null if the current window is the last one.
+     */
+    private CompletableFuture<List<List<Object>>> nextWindow;
+
+    /** The next decoded row, if it was already found. */
+    private Row<T> next;
+
+    /** The eventual number of rows within the tab's grid, or -1 if unknown. */
+    private final CompletableFuture<Integer> rowCount;
+
+    /**
+     * A decoded row of the tab.
+     * @param <T> the type of the decoded row.
+     */
+    public static class Row<T> {
+
+        /** The Discord ID of the row. */
+        private final long id;
+
+        /** The numbered spreadsheet row. */
+        private final int pos;
+
+        /** The decoded row. */
+        private final T value;
+
+        /**
+         * Constructs a decoded row.
+         * @param discordID the Discord ID of the row.
+         * @param rowNum the numbered spreadsheet row.
+         * @param decoded the decoded row.
+         */
+        private Row(long discordID, int rowNum, T decoded) {
+            id = discordID;
+            pos = rowNum;
+            value = decoded;
+        }
+
+        /** Retrieves the Discord ID of the row. */
+        public String getID() {
+            return Long.toString(id);
+        }
+
+        /** Retrieves the Discord ID of the row, as a number. */
+        public long getLongID() {
+            return id;
+        }
+
+        /** Retrieves the numbered spreadsheet row. */
+        public int getRow() {
+            return pos;
+        }
+
+        /** Retrieves the decoded row. */
+        public T getValue() {
+            return value;
+        }
+    }
+
+    /**
+     * Constructs the stream of a tab, starting the download
+     * of its first window.
+     * @param sheetLink the connection to the tab's spreadsheet.
+     * @param userInteraction the user interaction reading the tab, if any.
+     * @param tabName the name of the tab to stream.
+     * @param rowSchema the schema to decode each row with.
+     * @param rowsPerWindow the number of rows downloaded within each window.
+     */
+    SheetStream(GoogleSheetsAPI sheetLink,
+                GenericInteractionCreateEvent userInteraction,
+                String tabName, SheetSchema<T> rowSchema, int rowsPerWindow) {
+        link = sheetLink;
+        interaction = userInteraction;
+        tab = tabName;
+        schema = rowSchema;
+        windowRows = rowsPerWindow;
+
+        window = Collections.emptyList();
+        windowStart = FIRST_ROW - windowRows;
+        cursor = 0;
+        nextWindow = download(FIRST_ROW);
+        next = null;
+        rowCount = link.getRowCountAsync(tab).exceptionally(e -> -1);
+    }
+
+    /**
+     * Starts the download of a window.
+     * @param start the numbered row the window starts at.
+     * @return the eventual cells of the window's rows.
+     */
+    private CompletableFuture<List<List<Object>>> download(int start) {
+        return link.getRangeValuesAsync(String.format("'%s'!A%s:%s%s",
+                tab, start, schema.getLastColumn(), start + windowRows - 1));
+    }
+
+    /**
+     * Checks whether a window is the tab's last one or not.
+     * @param rows the number of rows downloaded within the window.
+     *
+     * Note: Blank rows at the end of a window are left out of it, so a
+     *       window with fewer rows than requested is only the last one
+     *       if the tab's grid also ends within it. An empty window
+     *       always is.
+     */
+    private boolean isLastWindow(int rows) {
+        if (rows == 0) {
+            return true;
+        } else if (rows == windowRows) {
+            return false;
+        }
+
+        int gridRows = rowCount.join();
+        return gridRows != -1 && gridRows < windowStart + windowRows;
+    }
+
+    /**
+     * Moves onto the next window, starting the download of
+     * the one after it, unless the window is the last one.
+     */
+    private void advance() {
+        try {
+            window = nextWindow.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw new UncheckedIOException((IOException) e.getCause());
+            }
+            throw e;
+        }
+
+        windowStart += windowRows;
+        cursor = 0;
+        nextWindow = isLastWindow(window.size())
+                ? null : download(windowStart + windowRows);
+    }
+
+    /**
+     * Checks whether the tab has another decoded row or not,
+     * waiting for the next window if needed.
+     *
+     * @throws UncheckedIOException if a window could not be downloaded.
+     */
+    @Override
+    public boolean hasNext() {
+        while (next == null) {
+            if (cursor == window.size()) {
+                if (nextWindow == null) {
+                    return false;
+                }
+
+                advance();
+                continue;
+            }
+
+            List<Object> row = window.get(cursor);
+            int pos = windowStart + cursor;
+            cursor++;
+            if (row.isEmpty()) {
+                continue;
+            }
+
+            long id = SectionIndex.parseID(row.get(0).toString());
+            if (id == -1) {
+                LoggerFactory.getLogger(this.getClass())
+                        .warn("Row " + pos + " does not have a Discord ID.");
+                continue;
+            }
+
+            next = new Row<>(id, pos, schema.decodeRow(interaction, pos, row));
+        }
+
+        return true;
+    }
+
+    /**
+     * Retrieves the next decoded row of the tab.
+     *
+     * @throws UncheckedIOException if a window could not be downloaded.
+     */
+    @Override
+    public Row<T> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        Row<T> row = next;
+        next = null;
+        return row;
+    }
+
+    /**
+     * Retrieves the remaining rows as a spliterator.
+     */
+    public Spliterator<Row<T>> spliterator() {
+        return Spliterators.spliteratorUnknownSize(this,
+                Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    /**
+     * Retrieves the remaining rows as a sequential stream.
+     */
+    public Stream<Row<T>> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+}
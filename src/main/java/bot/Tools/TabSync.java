@@ -0,0 +1,396 @@
+package bot.Tools;
+
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * @author  Wil Aquino
+ * Date:    August 15, 2022
+ * Project: Libra
+ * Module:  TabSync.java
+ * Purpose: Keeps a local copy of a spreadsheet tab, refreshing
+ *          only the blocks of rows which changed.
+ */
+public class TabSync<T> {
+
+    /** The first numbered row after the tab's header. */
+    private static final int FIRST_ROW = 2;
+
+    /** The name of the synced tab. */
+    private final String tab;
+
+    /** The schema to decode each row with. */
+    private final SheetSchema<T> schema;
+
+    /** The number of rows within each hashed block. */
+    private final int blockRows;
+
+    /**
+     * The number of refreshes within which every block is downloaded
+     * again, bounding how long an edit made in place goes unnoticed.
+     */
+    private final int sweepRefreshes;
+
+    /**
+     * The cells of each row, starting from the first row after the
+     * header, as last downloaded. A row is null if it must be downloaded
+     * again. null until the tab is first loaded.
+     */
+    private List<List<Object>> rows;
+
+    /** The content hash of each block of rows. */
+    private long[] blockHashes;
+
+    /** The decoded rows, indexed by Discord ID in row order. */
+    private SectionIndex<T> index;
+
+    /** The next block to download again, for spotting edits in place. */
+    private int verifyCursor;
+
+    /**
+     * The rows which changed during a load or refresh.
+     * @param <T> the type of the decoded rows.
+     */
+    public static class Changes<T> {
+
+        /** Flag for whether every row was downloaded again or not. */
+        private final boolean fullReload;
+
+        /** The decoded rows, indexed by Discord ID in row order. */
+        private final SectionIndex<T> index;
+
+        /** The rows which were added, edited or moved, indexed by Discord ID. */
+        private final Map<String, T> changed;
+
+        /** The Discord IDs of the rows which were removed. */
+        private final List<String> removed;
+
+        /**
+         * Constructs the changes of a load or refresh.
+         * @param isFullReload True if every row was downloaded again.
+         * @param newIndex the decoded rows.
+         * @param changedRows the rows which were added, edited or moved.
+         * @param removedIDs the Discord IDs of the rows which were removed.
+         */
+        private Changes(boolean isFullReload, SectionIndex<T> newIndex,
+                        Map<String, T> changedRows, List<String> removedIDs) {
+            fullReload = isFullReload;
+            index = newIndex;
+            changed = changedRows;
+            removed = removedIDs;
+        }
+
+        /**
+         * Checks whether every row was downloaded again or not, in which
+         * case the changes should replace the old rows entirely.
+         */
+        public boolean isFullReload() {
+            return fullReload;
+        }
+
+        /** Retrieves every decoded row, indexed by Discord ID in row order. */
+        public SectionIndex<T> getIndex() {
+            return index;
+        }
+
+        /** Retrieves the rows which were added, edited or moved. */
+        public Map<String, T> getChanged() {
+            return changed;
+        }
+
+        /** Retrieves the Discord IDs of the rows which were removed. */
+        public List<String> getRemoved() {
+            return removed;
+        }
+    }
+
+    /**
+     * Constructs the (empty) copy of a tab.
+     * @param tabName the name of the tab to sync.
+     * @param rowSchema the schema to decode each row with.
+     * @param rowsPerBlock the number of rows within each hashed block.
+     * @param refreshesPerSweep the number of refreshes within which every
+     *                          block is downloaded again, for spotting
+     *                          edits in place.
+     */
+    public TabSync(String tabName, SheetSchema<T> rowSchema,
+                   int rowsPerBlock, int refreshesPerSweep) {
+        tab = tabName;
+        schema = rowSchema;
+        blockRows = rowsPerBlock;
+        sweepRefreshes = Math.max(1, refreshesPerSweep);
+        rows = null;
+        blockHashes = new long[0];
+        index = new SectionIndex<>(0);
+        verifyCursor = 0;
+    }
+
+    /**
+     * Retrieves the Discord ID cell of a row.
+     * @param row the row's cells.
+     * @return said cell, as text.
+     *         An empty string if it is empty.
+     */
+    private static String idOf(List<Object> row) {
+        if (row == null || row.isEmpty()) {
+            return "";
+        }
+
+        return row.get(0).toString();
+    }
+
+    /**
+     * Calculates the content hash of a block of rows (64-bit FNV-1a).
+     * @param blockRowsList the rows to hash.
+     * @param start the index of the block's first row.
+     * @param end the index after the block's last row.
+     */
+    private static long hashBlock(List<List<Object>> blockRowsList,
+                                  int start, int end) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = start; i < end; i++) {
+            List<Object> row = blockRowsList.get(i);
+            if (row == null) {
+                // a row pending download never matches
+                return 0;
+            }
+
+            for (Object cell : row) {
+                String text = cell.toString();
+                for (int j = 0; j < text.length(); j++) {
+                    hash = (hash ^ text.charAt(j)) * 0x100000001b3L;
+                }
+                hash = (hash ^ 0x1F) * 0x100000001b3L;
+            }
+            hash = (hash ^ 0x1E) * 0x100000001b3L;
+        }
+
+        return hash;
+    }
+
+    /**
+     * Retrieves the number of blocks needed for some rows.
+     * @param numRows the number of rows.
+     */
+    private int numBlocks(int numRows) {
+        return (numRows + blockRows - 1) / blockRows;
+    }
+
+    /**
+     * Downloads every row of the tab, replacing the local copy.
+     * @param link the connection to the tab's spreadsheet.
+     * @return every row, as changes which replace the old rows.
+     */
+    public synchronized Changes<T> load(GoogleSheetsAPI link) throws IOException {
+        List<List<Object>> values = link.getRangeValues(String.format(
+                "'%s'!A%s:%s", tab, FIRST_ROW, schema.getLastColumn()));
+
+        rows = new ArrayList<>();
+        blockHashes = new long[0];
+        index = new SectionIndex<>(values.size());
+        verifyCursor = 0;
+
+        return apply(new ArrayList<>(values), true);
+    }
+
+    /**
+     * Replaces the local copy with rows saved earlier, without
+     * downloading anything.
+     * @param savedRows the rows of the tab, starting from the first
+     *                  row after the header.
+     * @return every row, as changes which replace the old rows.
+     */
+    public synchronized Changes<T> restore(List<List<Object>> savedRows) {
+        rows = new ArrayList<>();
+        blockHashes = new long[0];
+        index = new SectionIndex<>(savedRows.size());
+        verifyCursor = 0;
+
+        return apply(new ArrayList<>(savedRows), true);
+    }
+
+    /**
+     * Updates the local copy with the tab's changes.
+     * @param link the connection to the tab's spreadsheet.
+     * @return the rows which changed since the last load or refresh.
+     *
+     * Note: Only the Discord ID column is downloaded in full. Rows are
+     *       then downloaded, by block, where an ID is new or was moved
+     *       there, along with enough blocks taken in turn that every
+     *       block is downloaded again within the sweep's refreshes.
+     *       Added, moved or removed rows are found on the next refresh,
+     *       while an edit made in place (i.e. a changed nickname) can
+     *       go unnoticed for up to that many refreshes. Every block is
+     *       downloaded in one request.
+     */
+    public synchronized Changes<T> refresh(GoogleSheetsAPI link)
+            throws IOException {
+        if (rows == null) {
+            return load(link);
+        }
+
+        List<List<Object>> keyColumn = link.getRangeValues(
+                String.format("'%s'!A%s:A", tab, FIRST_ROW));
+
+        Map<String, List<Object>> oldRows = new HashMap<>();
+        for (List<Object> row : rows) {
+            if (row != null && !idOf(row).isEmpty()) {
+                oldRows.put(idOf(row), row);
+            }
+        }
+
+        int numRows = keyColumn.size();
+        List<List<Object>> newRows = new ArrayList<>(numRows);
+        TreeSet<Integer> fetched = new TreeSet<>();
+        for (int i = 0; i < numRows; i++) {
+            String id = idOf(keyColumn.get(i));
+            List<Object> row = id.isEmpty()
+                    ? Collections.emptyList() : oldRows.get(id);
+            if (row == null) {
+                fetched.add(i / blockRows);
+            }
+
+            newRows.add(row);
+        }
+
+        int numBlocks = numBlocks(numRows);
+        int verifyBlocks = (numBlocks + sweepRefreshes - 1) / sweepRefreshes;
+        for (int i = 0; i < verifyBlocks; i++) {
+            verifyCursor %= numBlocks;
+            fetched.add(verifyCursor++);
+        }
+
+        if (!fetched.isEmpty()) {
+            List<Integer> blocks = new ArrayList<>(fetched);
+            List<String> ranges = new ArrayList<>(blocks.size());
+            for (int block : blocks) {
+                int start = block * blockRows;
+                int end = Math.min(start + blockRows, numRows);
+                ranges.add(String.format("'%s'!A%s:%s%s", tab,
+                        start + FIRST_ROW, schema.getLastColumn(),
+                        end + FIRST_ROW - 1));
+            }
+
+            List<List<List<Object>>> blockValues = link.getRangesValues(ranges);
+            for (int b = 0; b < blocks.size(); b++) {
+                int start = blocks.get(b) * blockRows;
+                int end = Math.min(start + blockRows, numRows);
+                List<List<Object>> values = blockValues.get(b);
+
+                for (int i = start; i < end; i++) {
+                    List<Object> row = i - start < values.size()
+                            ? values.get(i - start) : Collections.emptyList();
+                    if (!idOf(row).equals(idOf(keyColumn.get(i)))) {
+                        // the tab changed between the two downloads
+                        return load(link);
+                    }
+
+                    newRows.set(i, row);
+                }
+            }
+        }
+
+        return apply(newRows, false);
+    }
+
+    /**
+     * Replaces the local copy with newer rows, decoding only the
+     * rows which were added, edited or moved.
+     * @param newRows the newer rows.
+     * @param fullReload True if every row was downloaded again.
+     * @return the rows which changed.
+     */
+    private Changes<T> apply(List<List<Object>> newRows, boolean fullReload) {
+        Map<String, List<Object>> oldRows = new HashMap<>();
+        for (List<Object> row : rows) {
+            if (row != null && !idOf(row).isEmpty()) {
+                oldRows.put(idOf(row), row);
+            }
+        }
+
+        int numBlocks = numBlocks(newRows.size());
+        long[] newHashes = new long[numBlocks];
+        SectionIndex<T> newIndex = new SectionIndex<>(newRows.size());
+        Map<String, T> changed = new LinkedHashMap<>();
+
+        for (int block = 0; block < numBlocks; block++) {
+            int start = block * blockRows;
+            int end = Math.min(start + blockRows, newRows.size());
+            newHashes[block] = hashBlock(newRows, start, end);
+            boolean sameBlock = block < blockHashes.length
+                    && blockHashes[block] == newHashes[block];
+
+            for (int i = start; i < end; i++) {
+                List<Object> row = newRows.get(i);
+                String idText = idOf(row);
+                long id = SectionIndex.parseID(idText);
+                if (id == -1) {
+                    if (!sameBlock && !idText.isEmpty()) {
+                        LoggerFactory.getLogger(this.getClass()).warn(
+                                "Row " + (i + FIRST_ROW) + " does not have a Discord ID.");
+                    }
+                    continue;
+                }
+
+                int pos = i + FIRST_ROW;
+                T value = null;
+                if (sameBlock || (row.equals(oldRows.get(idText))
+                        && index.getRow(idText) == pos)) {
+                    value = index.get(id);
+                }
+
+                if (value == null) {
+                    value = schema.decodeRow(null, pos, row);
+                    changed.put(idText, value);
+                }
+                newIndex.put(id, pos, value);
+            }
+        }
+
+        List<String> removed = new ArrayList<>();
+        for (int i = 0; i < index.size(); i++) {
+            if (!newIndex.containsKey(index.getLongIDAt(i))) {
+                removed.add(index.getIDAt(i));
+            }
+        }
+
+        rows = newRows;
+        blockHashes = newHashes;
+        index = newIndex;
+
+        return new Changes<>(fullReload, newIndex, changed, removed);
+    }
+
+    /**
+     * Marks a row as stale, so it is downloaded again on the next
+     * refresh (i.e. after the bot edits it).
+     * @param id the Discord ID of the row.
+     */
+    public synchronized void invalidateRow(String id) {
+        if (rows == null) {
+            return;
+        }
+
+        for (int i = 0; i < rows.size(); i++) {
+            if (rows.get(i) != null && idOf(rows.get(i)).equals(id)) {
+                rows.set(i, null);
+            }
+        }
+    }
+
+    /**
+     * Discards the local copy, so the next refresh downloads
+     * every row again.
+     */
+    public synchronized void invalidate() {
+        rows = null;
+    }
+}